@@ -5,12 +5,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.api.laptopstore.api.model.User;
 import com.api.laptopstore.api.repository.UserRepository;
+import com.api.laptopstore.api.security.UserChangedEvent;
 
 @Component
 public class DatabaseInitializer implements CommandLineRunner {
@@ -28,11 +30,14 @@ public class DatabaseInitializer implements CommandLineRunner {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public DatabaseInitializer(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public DatabaseInitializer(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                               ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -61,6 +66,7 @@ public class DatabaseInitializer implements CommandLineRunner {
             adminUser.setRole(adminRole);
             
             userRepository.save(adminUser);
+            eventPublisher.publishEvent(new UserChangedEvent(adminUsername));
             logger.info("Admin user created successfully with username: {}", adminUsername);
             
         } catch (Exception e) {
@@ -5,12 +5,15 @@ import com.api.laptopstore.api.dto.LoginResponse;
 import com.api.laptopstore.api.model.User;
 import com.api.laptopstore.api.repository.UserRepository;
 import com.api.laptopstore.api.security.JwtUtil;
+import com.api.laptopstore.api.security.UserChangedEvent;
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -32,6 +35,7 @@ public class AuthController {
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public AuthController(
@@ -39,12 +43,14 @@ public class AuthController {
             UserDetailsService userDetailsService,
             UserRepository userRepository,
             JwtUtil jwtUtil,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            ApplicationEventPublisher eventPublisher) {
         this.authenticationManager = authenticationManager;
         this.userDetailsService = userDetailsService;
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Operation(
@@ -81,6 +87,7 @@ public class AuthController {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setRole("ROLE_USER");
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
 
         return ResponseEntity.ok("User registered successfully");
     }
@@ -146,4 +153,31 @@ public class AuthController {
                     .body("Error during authentication");
         }
     }
+
+    @Operation(
+        summary = "Log out",
+        description = "Revokes the bearer token of this request; it is rejected from then on"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Token revoked"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Missing or invalid bearer token"
+        )
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body("Missing bearer token");
+        }
+        try {
+            jwtUtil.revokeToken(authorizationHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid token");
+        }
+        return ResponseEntity.ok("Logged out successfully");
+    }
 }
@@ -2,10 +2,18 @@ package com.api.laptopstore.api.controller;
 
 import com.api.laptopstore.api.model.Laptop;
 import com.api.laptopstore.api.repository.LaptopRepository;
+import com.api.laptopstore.api.service.CatalogVersion;
+import com.api.laptopstore.api.service.LaptopExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.util.List;
 
@@ -16,16 +24,46 @@ public class LaptopController {
     @Autowired
     private LaptopRepository laptopRepository;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private LaptopExportService laptopExportService;
+
+    @Value("${laptops.export.timeout-ms:1800000}")
+    private long exportTimeoutMillis;
+
     // CREATE - Add a new laptop
     @PostMapping
     public Laptop createLaptop(@RequestBody Laptop laptop) {
-        return laptopRepository.save(laptop);
+        Laptop savedLaptop = laptopRepository.save(laptop);
+        catalogVersion.increment();
+        return savedLaptop;
     }
 
     // READ - Get all laptops
+    // Answers If-None-Match with 304 from the catalog version, before the repository is queried
     @GetMapping
-    public List<Laptop> getAllLaptops() {
-        return laptopRepository.findAll();
+    public ResponseEntity<List<Laptop>> getAllLaptops(WebRequest webRequest) {
+        String etag = catalogVersion.etag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .body(laptopRepository.findAll());
+    }
+
+    // READ - Export the whole catalog as NDJSON, streamed from a database cursor.
+    // Runs asynchronously with its own timeout, so other async endpoints keep the default.
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportLaptops(HttpServletResponse response) {
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            laptopExportService.exportNdjson(response.getOutputStream());
+            return null;
+        });
     }
 
     // READ - Get a single laptop by ID
@@ -57,6 +95,7 @@ public class LaptopController {
         laptop.setDescription(laptopDetails.getDescription());
 
         Laptop updatedLaptop = laptopRepository.save(laptop);
+        catalogVersion.increment();
         return ResponseEntity.ok(updatedLaptop);
     }
 
@@ -71,6 +110,7 @@ public class LaptopController {
         }
 
         laptopRepository.delete(laptop);
+        catalogVersion.increment();
         return ResponseEntity.ok().build();
     }
 }
@@ -1,10 +1,27 @@
 package com.api.laptopstore.api.repository;
 
 import com.api.laptopstore.api.model.Laptop;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.stream.Stream;
+
 @Repository
 public interface LaptopRepository extends JpaRepository<Laptop, Long> {
     // Basic CRUD operations are automatically provided by JpaRepository
+
+    // Forward-only cursor over the whole catalog. A fetch size of Integer.MIN_VALUE
+    // makes MySQL Connector/J stream rows one by one instead of buffering the result.
+    // Must be consumed (and closed) inside a transaction.
+    @Query("SELECT l FROM Laptop l ORDER BY l.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Laptop> streamAll();
 }
@@ -1,22 +1,71 @@
 package com.api.laptopstore.api.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
+    private static final long TOKEN_VALIDITY = 24 * 60 * 60 * 1000; // 24 hours
+    private static final String ROLES_CLAIM = "roles";
+
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    private final long TOKEN_VALIDITY = 24 * 60 * 60 * 1000; // 24 hours
+    // Immutable and thread-safe; built once instead of per call
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+    private final VerifiedTokenCache tokenCache;
+
+    @Autowired
+    public JwtUtil(@Value("${security.jwt.token-cache.max-size:10000}") long tokenCacheSize,
+                   @Value("${security.jwt.token-cache.max-ttl-seconds:300}") long tokenCacheTtlSeconds) {
+        this.tokenCache = new VerifiedTokenCache(tokenCacheSize, Duration.ofSeconds(tokenCacheTtlSeconds));
+    }
+
+    /**
+     * Verify the token's signature and expiry and return its claims. This is
+     * the only place a token is parsed; callers parse once per request and
+     * work with the claims. A token seen before is answered from the
+     * verified-token cache without checking the signature again. Throws
+     * JwtException for invalid, expired or revoked tokens.
+     */
+    public Claims parseToken(String token) {
+        String digest = VerifiedTokenCache.digest(token);
+        if (tokenCache.isRevoked(digest)) {
+            throw new JwtException("Token has been revoked");
+        }
+        Claims claims = tokenCache.get(digest);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            tokenCache.put(digest, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Reject the token from now on (until it expires anyway). Throws
+     * JwtException if the token is not valid to begin with.
+     */
+    public void revokeToken(String token) {
+        Claims claims = parseToken(token);
+        tokenCache.revoke(VerifiedTokenCache.digest(token), claims);
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -27,20 +76,26 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return claimsResolver.apply(parseToken(token));
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * The user details carried by the token itself (subject and roles claim),
+     * for security.jwt.stateless mode
+     */
+    public UserDetails extractUserDetails(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        List<SimpleGrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        return new User(claims.getSubject(), "", authorities);
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -55,7 +110,14 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parseToken(token), userDetails);
+    }
+
+    /**
+     * Check already parsed claims against the user, without parsing again
+     */
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date());
     }
 }
@@ -0,0 +1,8 @@
+package com.api.laptopstore.api.security;
+
+/**
+ * Published when a user is created or their password or role changes, so
+ * cached copies of the user's details are dropped
+ */
+public record UserChangedEvent(String username) {
+}
@@ -0,0 +1,61 @@
+package com.api.laptopstore.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Bounded, expiring cache of the user details that JwtRequestFilter needs on
+ * every authenticated request, so a request does not cost a users query.
+ *
+ * Entries live for security.user-cache.ttl-seconds and are dropped right away
+ * on a UserChangedEvent, which every write to a user publishes: registration,
+ * admin setup and the password rehash on login.
+ */
+@Component
+public class UserDetailsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsCache.class);
+
+    private final CustomUserDetailsService userDetailsService;
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(CustomUserDetailsService userDetailsService,
+                            @Value("${security.user-cache.max-size:10000}") long maxSize,
+                            @Value("${security.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * The user's details, from the cache or loaded (and cached) on a miss.
+     * Unknown users are not cached, and cached copies carry no password hash.
+     */
+    public UserDetails get(String username) {
+        return cache.get(username, name -> User.withUserDetails(userDetailsService.loadUserByUsername(name))
+                .password("")
+                .build());
+    }
+
+    /**
+     * Drop the user once the change is committed; evicting earlier would let a
+     * concurrent request re-cache the old row. Events published outside a
+     * transaction evict right away.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        logger.debug("Evicting cached details of user {}", event.username());
+        cache.invalidate(event.username());
+    }
+}
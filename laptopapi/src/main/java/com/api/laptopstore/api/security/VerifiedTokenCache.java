@@ -0,0 +1,96 @@
+package com.api.laptopstore.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.ToLongFunction;
+
+/**
+ * Claims of tokens whose signature has already been verified, keyed by the
+ * SHA-256 digest of the token, plus the set of revoked tokens.
+ *
+ * A verified entry lives until the token expires, but no longer than maxTtl,
+ * and the cache holds at most maxSize entries. A revoked token stays in the
+ * revocation set until it expires (that set is not size bounded, so
+ * eviction can never make a revoked token valid again).
+ */
+public class VerifiedTokenCache {
+
+    private final Cache<String, Claims> verified;
+    private final Cache<String, Long> revoked;
+
+    public VerifiedTokenCache(long maxSize, Duration maxTtl) {
+        this.verified = maxSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfter(untilExpiry((Claims claims) -> claims.getExpiration().getTime(), maxTtl))
+                        .build()
+                : null;
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(untilExpiry((Long expiresAt) -> expiresAt, null))
+                .build();
+    }
+
+    public static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Cached claims for the token digest, or null on a miss (or if caching is off)
+     */
+    public Claims get(String digest) {
+        return verified != null ? verified.getIfPresent(digest) : null;
+    }
+
+    public void put(String digest, Claims claims) {
+        if (verified != null && claims.getExpiration() != null) {
+            verified.put(digest, claims);
+        }
+    }
+
+    public boolean isRevoked(String digest) {
+        return revoked.getIfPresent(digest) != null;
+    }
+
+    public void revoke(String digest, Claims claims) {
+        if (verified != null) {
+            verified.invalidate(digest);
+        }
+        revoked.put(digest, claims.getExpiration().getTime());
+    }
+
+    /**
+     * Expire each entry at the epoch millis given by expiresAt, capped at maxTtl if set
+     */
+    private static <V> Expiry<String, V> untilExpiry(ToLongFunction<V> expiresAt, Duration maxTtl) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, V value, long currentTime) {
+                long nanos = Duration.ofMillis(Math.max(0, expiresAt.applyAsLong(value) - System.currentTimeMillis())).toNanos();
+                return maxTtl != null ? Math.min(nanos, maxTtl.toNanos()) : nanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
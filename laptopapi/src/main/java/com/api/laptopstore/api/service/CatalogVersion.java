@@ -0,0 +1,27 @@
+package com.api.laptopstore.api.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the laptop catalog, bumped after every write through the API.
+ * The boot ID keeps ETags from one run from matching those of a restarted
+ * instance whose counter starts again from zero.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong version = new AtomicLong();
+
+    public void increment() {
+        version.incrementAndGet();
+    }
+
+    // Strong ETag value for anything derived from the catalog
+    public String etag() {
+        return "\"" + bootId + "-" + version.get() + "\"";
+    }
+}
@@ -0,0 +1,74 @@
+package com.api.laptopstore.api.service;
+
+import com.api.laptopstore.api.model.Laptop;
+import com.api.laptopstore.api.repository.LaptopRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the laptop catalog as NDJSON (one JSON object per line) straight from
+ * a database cursor, so memory use does not grow with the size of the table.
+ */
+@Service
+public class LaptopExportService {
+
+    // Flush to the client every this many laptops
+    private static final int FLUSH_INTERVAL = 500;
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void exportNdjson(OutputStream out) throws IOException {
+        // No root value separator: each line is terminated with '\n' below instead
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // Leave closing the response stream to the servlet container
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<Laptop> laptops = laptopRepository.streamAll()) {
+                    int count = 0;
+                    for (Iterator<Laptop> it = laptops.iterator(); it.hasNext(); ) {
+                        Laptop laptop = it.next();
+                        writer.writeValue(generator, laptop);
+                        generator.writeRaw('\n');
+                        // Keep the persistence context from holding on to every row read so far
+                        entityManager.detach(laptop);
+                        if (++count % FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.api.laptopstore.api.controller;
+
+import com.api.laptopstore.api.repository.LaptopRepository;
+import com.api.laptopstore.api.service.CatalogVersion;
+import com.api.laptopstore.api.service.LaptopExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class LaptopControllerExportTests {
+
+	private static final long EXPORT_TIMEOUT_MILLIS = 1_800_000;
+
+	@Mock
+	private LaptopRepository laptopRepository;
+
+	@Mock
+	private CatalogVersion catalogVersion;
+
+	@Mock
+	private LaptopExportService laptopExportService;
+
+	@InjectMocks
+	private LaptopController laptopController;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(laptopController, "exportTimeoutMillis", EXPORT_TIMEOUT_MILLIS);
+		mockMvc = MockMvcBuilders.standaloneSetup(laptopController).build();
+	}
+
+	@Test
+	void exportStreamsNdjsonWithItsOwnTimeout() throws Exception {
+		doAnswer(invocation -> {
+			OutputStream out = invocation.getArgument(0);
+			out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+			return null;
+		}).when(laptopExportService).exportNdjson(any());
+
+		MvcResult result = mockMvc.perform(get("/api/laptops/export"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(EXPORT_TIMEOUT_MILLIS);
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+				.andExpect(content().string("{\"id\":1}\n"));
+	}
+}
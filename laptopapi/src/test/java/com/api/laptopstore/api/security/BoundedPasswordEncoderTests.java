@@ -0,0 +1,69 @@
+package com.api.laptopstore.api.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTests {
+
+	private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+
+	@Test
+	void loginFailsWhenNoPermitFreesUpInTime() throws Exception {
+		CountDownLatch hashing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(delegate.matches(any(), anyString())).thenAnswer(invocation -> {
+			hashing.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return true;
+		});
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 50);
+
+		CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> encoder.matches("secret", "hash"));
+		assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+		try {
+			assertThatThrownBy(() -> provider(encoder).authenticate(
+					new UsernamePasswordAuthenticationToken("alice", "secret")))
+					.isInstanceOf(AuthenticationServiceException.class);
+		} finally {
+			release.countDown();
+		}
+		assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void permitIsReturnedAfterEachHash() {
+		when(delegate.encode("secret")).thenReturn("hash");
+		when(delegate.matches("secret", "hash")).thenReturn(true);
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 50);
+
+		assertThat(encoder.encode("secret")).isEqualTo("hash");
+		assertThat(encoder.matches("secret", "hash")).isTrue();
+		assertThat(encoder.matches("secret", "hash")).isTrue();
+	}
+
+	private DaoAuthenticationProvider provider(PasswordEncoder encoder) {
+		UserDetailsService userDetailsService = mock(UserDetailsService.class);
+		when(userDetailsService.loadUserByUsername("alice"))
+				.thenReturn(User.withUsername("alice").password("hash").roles("USER").build());
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setUserDetailsService(userDetailsService);
+		provider.setPasswordEncoder(encoder);
+		return provider;
+	}
+}
@@ -0,0 +1,91 @@
+package com.api.laptopstore.api.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT validation: the old path (three parser builds and
+ * three signature checks), JwtUtil's single parse with the shared parser, and
+ * the same with the verified-token cache. Not run by the test phase; run with
+ *
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtParseBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParseBenchmark {
+
+	private Key legacyKey;
+	private String legacyToken;
+
+	private UserDetails user;
+	private JwtUtil uncachedJwtUtil;
+	private String uncachedToken;
+	private JwtUtil cachingJwtUtil;
+	private String cachingToken;
+
+	@Setup
+	public void setUp() {
+		legacyKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+		legacyToken = Jwts.builder()
+				.setSubject("admin")
+				.setIssuedAt(new Date())
+				.setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+				.signWith(legacyKey)
+				.compact();
+
+		user = new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+		uncachedJwtUtil = new JwtUtil(0, 0);
+		uncachedToken = uncachedJwtUtil.generateToken(user);
+		cachingJwtUtil = new JwtUtil(10_000, 300);
+		cachingToken = cachingJwtUtil.generateToken(user);
+	}
+
+	/**
+	 * extractUsername in the filter, then extractUsername and isTokenExpired
+	 * in validateToken, each with a freshly built parser
+	 */
+	@Benchmark
+	public void threeParsers(Blackhole blackhole) {
+		for (int i = 0; i < 3; i++) {
+			Claims claims = Jwts.parserBuilder().setSigningKey(legacyKey).build()
+					.parseClaimsJws(legacyToken).getBody();
+			blackhole.consume(claims);
+		}
+	}
+
+	@Benchmark
+	public Boolean parseOnce() {
+		return uncachedJwtUtil.validateToken(uncachedJwtUtil.parseToken(uncachedToken), user);
+	}
+
+	@Benchmark
+	public Boolean parseOnceCached() {
+		return cachingJwtUtil.validateToken(cachingJwtUtil.parseToken(cachingToken), user);
+	}
+}
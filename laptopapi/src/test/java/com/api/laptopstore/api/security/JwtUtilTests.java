@@ -0,0 +1,82 @@
+package com.api.laptopstore.api.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTests {
+
+	private final UserDetails alice = new User("alice", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+	private final UserDetails bob = new User("bob", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+	@Test
+	void tokenRoundTripsSubjectAndRoles() {
+		JwtUtil jwtUtil = new JwtUtil(100, 300);
+
+		Claims claims = jwtUtil.parseToken(jwtUtil.generateToken(bob));
+
+		assertThat(jwtUtil.validateToken(claims, bob)).isTrue();
+		assertThat(jwtUtil.validateToken(claims, alice)).isFalse();
+		assertThat(jwtUtil.extractUserDetails(claims).getAuthorities())
+				.extracting(Object::toString).containsExactly("ROLE_ADMIN");
+	}
+
+	@Test
+	void repeatedParseIsAnsweredFromTheCache() {
+		JwtUtil jwtUtil = new JwtUtil(100, 300);
+		String token = jwtUtil.generateToken(alice);
+
+		assertThat(jwtUtil.parseToken(token)).isSameAs(jwtUtil.parseToken(token));
+	}
+
+	@Test
+	void withCachingOffEveryParseVerifiesAgain() {
+		JwtUtil jwtUtil = new JwtUtil(0, 0);
+		String token = jwtUtil.generateToken(alice);
+
+		assertThat(jwtUtil.parseToken(token)).isNotSameAs(jwtUtil.parseToken(token));
+	}
+
+	@Test
+	void tamperedTokenIsRejectedEvenAfterTheOriginalWasCached() {
+		JwtUtil jwtUtil = new JwtUtil(100, 300);
+		String token = jwtUtil.generateToken(alice);
+		jwtUtil.parseToken(token);
+
+		String tampered = token.substring(0, token.length() - 2)
+				+ (token.endsWith("AA") ? "BB" : "AA");
+
+		assertThatThrownBy(() -> jwtUtil.parseToken(tampered)).isInstanceOf(JwtException.class);
+	}
+
+	@Test
+	void revokedTokenIsRejectedWhileOthersStillWork() {
+		JwtUtil jwtUtil = new JwtUtil(100, 300);
+		String revoked = jwtUtil.generateToken(alice);
+		String other = jwtUtil.generateToken(bob);
+		jwtUtil.parseToken(revoked);
+
+		jwtUtil.revokeToken(revoked);
+
+		assertThatThrownBy(() -> jwtUtil.parseToken(revoked))
+				.isInstanceOf(JwtException.class)
+				.hasMessage("Token has been revoked");
+		assertThat(jwtUtil.parseToken(other).getSubject()).isEqualTo("bob");
+	}
+
+	@Test
+	void tokenFromAnotherKeyIsRejected() {
+		String foreign = new JwtUtil(100, 300).generateToken(alice);
+
+		assertThatThrownBy(() -> new JwtUtil(100, 300).parseToken(foreign)).isInstanceOf(JwtException.class);
+	}
+}
@@ -0,0 +1,180 @@
+package com.api.laptopstore.api.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsCacheTests {
+
+	@Mock
+	private CustomUserDetailsService userDetailsService;
+
+	private UserDetailsCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new UserDetailsCache(userDetailsService, 100, 300);
+	}
+
+	@Test
+	void loadsOnceAndDropsThePasswordHash() {
+		when(userDetailsService.loadUserByUsername("alice")).thenReturn(user("ROLE_USER"));
+
+		UserDetails first = cache.get("alice");
+		UserDetails second = cache.get("alice");
+
+		assertThat(second).isSameAs(first);
+		assertThat(first.getPassword()).isEmpty();
+		verify(userDetailsService, times(1)).loadUserByUsername("alice");
+	}
+
+	@Test
+	void userChangedEventReloadsTheUser() {
+		when(userDetailsService.loadUserByUsername("alice"))
+				.thenReturn(user("ROLE_USER"), user("ROLE_ADMIN"));
+		cache.get("alice");
+
+		cache.onUserChanged(new UserChangedEvent("alice"));
+
+		assertThat(cache.get("alice").getAuthorities())
+				.extracting(Object::toString).containsExactly("ROLE_ADMIN");
+	}
+
+	@Test
+	void unknownUsersAreNotCached() {
+		when(userDetailsService.loadUserByUsername("bob"))
+				.thenThrow(new UsernameNotFoundException("User not found with username: bob"));
+
+		assertThatThrownBy(() -> cache.get("bob")).isInstanceOf(UsernameNotFoundException.class);
+		assertThatThrownBy(() -> cache.get("bob")).isInstanceOf(UsernameNotFoundException.class);
+
+		verify(userDetailsService, times(2)).loadUserByUsername("bob");
+	}
+
+	private static UserDetails user(String role) {
+		return User.withUsername("alice").password("{bcrypt}hash").authorities(role).build();
+	}
+
+	/**
+	 * Events published by the real user writes, which run in transactions
+	 */
+	@Nested
+	@SpringJUnitConfig(UserDetailsCacheTests.PublishedEvents.Config.class)
+	class PublishedEvents {
+
+		@Configuration
+		@EnableTransactionManagement
+		static class Config {
+
+			@Bean
+			UserDetailsCache userDetailsCache(CustomUserDetailsService userDetailsService) {
+				return new UserDetailsCache(userDetailsService, 100, 300);
+			}
+
+			// Only drives transaction synchronization; there is no resource behind it
+			@Bean
+			PlatformTransactionManager transactionManager() {
+				return new AbstractPlatformTransactionManager() {
+					@Override
+					protected Object doGetTransaction() {
+						return new Object();
+					}
+
+					@Override
+					protected void doBegin(Object transaction, TransactionDefinition definition) {
+					}
+
+					@Override
+					protected void doCommit(DefaultTransactionStatus status) {
+					}
+
+					@Override
+					protected void doRollback(DefaultTransactionStatus status) {
+					}
+				};
+			}
+		}
+
+		@Autowired
+		private UserDetailsCache cache;
+
+		@MockBean
+		private CustomUserDetailsService userDetailsService;
+
+		@Autowired
+		private ApplicationEventPublisher eventPublisher;
+
+		@Autowired
+		private PlatformTransactionManager transactionManager;
+
+		@BeforeEach
+		void setUp() {
+			clearInvocations(userDetailsService);
+			when(userDetailsService.loadUserByUsername("alice"))
+					.thenReturn(User.withUsername("alice").password("{bcrypt}hash").roles("USER").build());
+			eventPublisher.publishEvent(new UserChangedEvent("alice"));
+			cache.get("alice");
+		}
+
+		@Test
+		void eventInsideATransactionEvictsOnlyAfterCommit() {
+			new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				eventPublisher.publishEvent(new UserChangedEvent("alice"));
+				// A request racing the commit still gets the cached copy, it does not reload the old row
+				cache.get("alice");
+				verify(userDetailsService, times(1)).loadUserByUsername("alice");
+			});
+
+			cache.get("alice");
+
+			verify(userDetailsService, times(2)).loadUserByUsername("alice");
+		}
+
+		@Test
+		void eventInARolledBackTransactionKeepsTheEntry() {
+			new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				eventPublisher.publishEvent(new UserChangedEvent("alice"));
+				status.setRollbackOnly();
+			});
+
+			cache.get("alice");
+
+			verify(userDetailsService, times(1)).loadUserByUsername("alice");
+		}
+
+		@Test
+		void eventOutsideATransactionEvictsRightAway() {
+			eventPublisher.publishEvent(new UserChangedEvent("alice"));
+
+			cache.get("alice");
+
+			verify(userDetailsService, times(2)).loadUserByUsername("alice");
+		}
+	}
+}
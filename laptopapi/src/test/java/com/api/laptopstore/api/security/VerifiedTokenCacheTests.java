@@ -0,0 +1,107 @@
+package com.api.laptopstore.api.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTests {
+
+	private static final long HOUR_MILLIS = 3_600_000;
+
+	// Claims store the expiry in whole seconds, so short expiries are rounded down
+	private static final long SHORT_MILLIS = 1_500;
+
+	@Test
+	void digestIsStableHexPerToken() {
+		String digest = VerifiedTokenCache.digest("header.payload.signature");
+
+		assertThat(digest).hasSize(64).matches("[0-9a-f]+");
+		assertThat(VerifiedTokenCache.digest("header.payload.signature")).isEqualTo(digest);
+		assertThat(VerifiedTokenCache.digest("header.payload.signaturf")).isNotEqualTo(digest);
+	}
+
+	@Test
+	void verifiedClaimsAreCachedByDigest() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100, Duration.ofMinutes(5));
+		Claims claims = claims(HOUR_MILLIS);
+
+		cache.put("a", claims);
+
+		assertThat(cache.get("a")).isSameAs(claims);
+		assertThat(cache.get("b")).isNull();
+	}
+
+	@Test
+	void entryExpiresWithTheToken() throws InterruptedException {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100, Duration.ofMinutes(5));
+		Claims claims = claims(SHORT_MILLIS);
+		cache.put("a", claims);
+
+		assertThat(cache.get("a")).isNotNull();
+		sleepPast(claims);
+
+		assertThat(cache.get("a")).isNull();
+	}
+
+	@Test
+	void entryExpiresAfterTheMaxTtl() throws InterruptedException {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100, Duration.ofMillis(200));
+		cache.put("a", claims(HOUR_MILLIS));
+
+		assertThat(cache.get("a")).isNotNull();
+		Thread.sleep(400);
+
+		assertThat(cache.get("a")).isNull();
+	}
+
+	@Test
+	void claimsWithoutExpiryAreNotCached() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100, Duration.ofMinutes(5));
+
+		cache.put("a", Jwts.claims().setSubject("alice"));
+
+		assertThat(cache.get("a")).isNull();
+	}
+
+	@Test
+	void zeroSizeTurnsCachingOff() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(0, Duration.ofMinutes(5));
+
+		cache.put("a", claims(HOUR_MILLIS));
+
+		assertThat(cache.get("a")).isNull();
+	}
+
+	@Test
+	void revocationDropsTheEntryUntilTheTokenExpires() throws InterruptedException {
+		// Revocation works with caching off too
+		for (long size : new long[] {100, 0}) {
+			VerifiedTokenCache cache = new VerifiedTokenCache(size, Duration.ofMinutes(5));
+			Claims claims = claims(SHORT_MILLIS);
+			cache.put("a", claims);
+
+			cache.revoke("a", claims);
+
+			assertThat(cache.isRevoked("a")).isTrue();
+			assertThat(cache.isRevoked("b")).isFalse();
+			assertThat(cache.get("a")).isNull();
+			sleepPast(claims);
+			assertThat(cache.isRevoked("a")).isFalse();
+		}
+	}
+
+	private static void sleepPast(Claims claims) throws InterruptedException {
+		Thread.sleep(Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()) + 200);
+	}
+
+	private static Claims claims(long expiresInMillis) {
+		return Jwts.claims()
+				.setSubject("alice")
+				.setExpiration(new Date(System.currentTimeMillis() + expiresInMillis));
+	}
+}
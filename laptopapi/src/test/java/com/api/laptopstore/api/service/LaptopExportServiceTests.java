@@ -0,0 +1,58 @@
+package com.api.laptopstore.api.service;
+
+import com.api.laptopstore.api.model.Laptop;
+import com.api.laptopstore.api.repository.LaptopRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LaptopExportServiceTests {
+
+	@Mock
+	private LaptopRepository laptopRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private EntityManager entityManager;
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@InjectMocks
+	private LaptopExportService exportService;
+
+	@Test
+	void writesOneJsonObjectPerLine() throws Exception {
+		Laptop first = new Laptop(1L, "Dell", "XPS 15", "i7", 16, 512, 1799.99, "First");
+		Laptop second = new Laptop(2L, "Apple", "MacBook Pro", "M2 Pro", 16, 512, 1999.99, "Second");
+		when(laptopRepository.streamAll()).thenReturn(Stream.of(first, second));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.exportNdjson(out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+		assertThat(lines).hasSize(3);
+		assertThat(lines[0]).startsWith("{\"id\":1");
+		assertThat(lines[1]).startsWith("{\"id\":2");
+		assertThat(lines[2]).isEmpty();
+		verify(entityManager).detach(first);
+		verify(entityManager).detach(second);
+	}
+}
@@ -0,0 +1,34 @@
+package com.wiley.laptopstore.cart;
+
+import com.wiley.laptopstore.service.CartService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.web.authentication.session.SessionFixationProtectionEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carries the cart over when login changes the session ID (session fixation
+ * protection), instead of leaving it behind under the old ID.
+ */
+@Component
+public class CartLoginListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartLoginListener.class);
+
+    @Autowired
+    private CartService cartService;
+
+    @EventListener
+    public void onSessionIdChanged(SessionFixationProtectionEvent event) {
+        try {
+            cartService.mergeCartOnLogin(event.getOldSessionId(), event.getNewSessionId(),
+                                         event.getAuthentication().getName());
+        } catch (Exception e) {
+            // A failed merge must not fail the login itself
+            logger.error("Error merging cart on login for user {}: {}",
+                        event.getAuthentication().getName(), e.getMessage(), e);
+        }
+    }
+}
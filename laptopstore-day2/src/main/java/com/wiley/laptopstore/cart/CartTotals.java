@@ -0,0 +1,9 @@
+package com.wiley.laptopstore.cart;
+
+/**
+ * Item count and total price (in cents) of a cart
+ */
+public record CartTotals(int totalItems, long totalPriceCents) {
+    
+    public static final CartTotals EMPTY = new CartTotals(0, 0);
+}
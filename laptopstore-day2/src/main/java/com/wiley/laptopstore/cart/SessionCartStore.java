@@ -0,0 +1,324 @@
+package com.wiley.laptopstore.cart;
+
+import com.wiley.laptopstore.entity.Cart;
+import com.wiley.laptopstore.entity.Money;
+import com.wiley.laptopstore.repository.CartItemWriter;
+import com.wiley.laptopstore.repository.CartItemRepository;
+import com.wiley.laptopstore.repository.CartLine;
+import com.wiley.laptopstore.repository.CartRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.event.InteractiveAuthenticationSuccessEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory cart store with write-behind persistence, enabled with
+ * laptopstore.cart.store=memory.
+ *
+ * Cart clicks only change the in-memory cart of the session. A scheduled job
+ * writes carts that have been quiet for the debounce window to the carts and
+ * cart_items tables; a cart is also flushed right away when it is viewed, when
+ * its session logs in and on shutdown. Carts not in memory (e.g. after a
+ * restart) are loaded from the last flush on first use.
+ */
+@Component
+@ConditionalOnProperty(name = "laptopstore.cart.store", havingValue = "memory")
+public class SessionCartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionCartStore.class);
+
+    /**
+     * Laptop quantities of one session, in the order they were added, plus the
+     * laptop prices (in cents) for the cart total
+     */
+    private static final class SessionCart {
+        private final Map<Long, Integer> lines = new LinkedHashMap<>();
+        private final Map<Long, Long> prices = new HashMap<>();
+        private long version;
+        private long flushedVersion;
+        private long lastModified = System.currentTimeMillis();
+        private boolean evicted;
+
+        private SessionCart(Iterable<CartLine> persistedLines) {
+            for (CartLine line : persistedLines) {
+                lines.put(line.getLaptopId(), line.getQuantity());
+                prices.put(line.getLaptopId(), line.getPriceCents());
+            }
+        }
+
+        private void modified() {
+            version++;
+            lastModified = System.currentTimeMillis();
+        }
+
+        private boolean isDirty() {
+            return version != flushedVersion;
+        }
+    }
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CartItemWriter cartItemWriter;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SessionLocks sessionLocks;
+
+    @Value("${laptopstore.cart.flush-debounce-ms:5000}")
+    private long debounceMillis;
+
+    @Value("${laptopstore.cart.idle-eviction-ms:1800000}")
+    private long idleEvictionMillis;
+
+    private final Map<String, SessionCart> carts = new ConcurrentHashMap<>();
+
+    public void add(String sessionId, Long laptopId, long priceCents, int quantity) {
+        change(sessionId, cart -> {
+            cart.lines.merge(laptopId, quantity, Integer::sum);
+            cart.prices.put(laptopId, priceCents);
+            return true;
+        });
+    }
+
+    /**
+     * Set the quantity of a laptop already in the cart; false if it is not there
+     */
+    public boolean update(String sessionId, Long laptopId, int quantity) {
+        return change(sessionId, cart -> cart.lines.replace(laptopId, quantity) != null);
+    }
+
+    public boolean remove(String sessionId, Long laptopId) {
+        return change(sessionId, cart -> {
+            cart.prices.remove(laptopId);
+            return cart.lines.remove(laptopId) != null;
+        });
+    }
+
+    public void clear(String sessionId) {
+        change(sessionId, cart -> {
+            cart.lines.clear();
+            cart.prices.clear();
+            return true;
+        });
+    }
+
+    /**
+     * Totals of the in-memory cart, or null if the session has none in memory
+     * (the caller then reads the stored summary)
+     */
+    public CartTotals totals(String sessionId) {
+        SessionCart cart = carts.get(sessionId);
+        if (cart == null) {
+            return null;
+        }
+        synchronized (cart) {
+            int items = 0;
+            long totalCents = 0;
+            for (Map.Entry<Long, Integer> line : cart.lines.entrySet()) {
+                items += line.getValue();
+                totalCents += Money.times(cart.prices.getOrDefault(line.getKey(), 0L), line.getValue());
+            }
+            return new CartTotals(items, totalCents);
+        }
+    }
+
+    /**
+     * Write the cart of a session to the database now, if it has unsaved changes
+     */
+    public void flush(String sessionId) {
+        SessionCart cart = carts.get(sessionId);
+        if (cart != null) {
+            persist(sessionId, cart);
+        }
+    }
+
+    /**
+     * Forget the in-memory cart of a session whose stored cart has been moved
+     * elsewhere; call after flushing it
+     */
+    public void discard(String sessionId) {
+        SessionCart cart = carts.remove(sessionId);
+        if (cart != null) {
+            synchronized (cart) {
+                cart.evicted = true;
+            }
+        }
+    }
+
+    /**
+     * Write carts that have not changed for the debounce window, and drop clean
+     * carts that have been idle for longer than a session lives
+     */
+    @Scheduled(fixedDelayString = "${laptopstore.cart.flush-interval-ms:1000}")
+    public void flushQuietCarts() {
+        long now = System.currentTimeMillis();
+        int flushed = 0;
+        for (Map.Entry<String, SessionCart> entry : carts.entrySet()) {
+            SessionCart cart = entry.getValue();
+            boolean dirty;
+            long lastModified;
+            synchronized (cart) {
+                dirty = cart.isDirty();
+                lastModified = cart.lastModified;
+            }
+            if (dirty && now - lastModified >= debounceMillis) {
+                if (persist(entry.getKey(), cart)) {
+                    flushed++;
+                }
+            } else if (!dirty && now - lastModified >= idleEvictionMillis) {
+                synchronized (cart) {
+                    if (!cart.isDirty()) {
+                        cart.evicted = true;
+                        carts.remove(entry.getKey(), cart);
+                    }
+                }
+            }
+        }
+        if (flushed > 0) {
+            logger.info("Flushed {} carts to the database, {} carts in memory", flushed, carts.size());
+        }
+    }
+
+    /**
+     * Flush the cart of a session that just logged in, before anything keyed
+     * by the (possibly changed) session ID reads it from the database
+     */
+    @EventListener
+    public void onLogin(InteractiveAuthenticationSuccessEvent event) {
+        if (event.getAuthentication().getDetails() instanceof WebAuthenticationDetails details
+                && details.getSessionId() != null) {
+            logger.debug("Flushing cart of session {} on login", details.getSessionId());
+            flush(details.getSessionId());
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        int flushed = 0;
+        for (Map.Entry<String, SessionCart> entry : carts.entrySet()) {
+            if (persist(entry.getKey(), entry.getValue())) {
+                flushed++;
+            }
+        }
+        logger.info("Flushed {} of {} in-memory carts on shutdown", flushed, carts.size());
+    }
+
+    /**
+     * Apply a change to the lines of a session's cart, marking it dirty if the
+     * change reports that it modified something
+     */
+    private boolean change(String sessionId, Predicate<SessionCart> change) {
+        while (true) {
+            SessionCart cart = cartFor(sessionId);
+            synchronized (cart) {
+                // Lost a race with idle eviction; load the cart again
+                if (cart.evicted) {
+                    continue;
+                }
+                boolean changed = change.test(cart);
+                if (changed) {
+                    cart.modified();
+                }
+                return changed;
+            }
+        }
+    }
+
+    private SessionCart cartFor(String sessionId) {
+        SessionCart cart = carts.get(sessionId);
+        if (cart != null) {
+            return cart;
+        }
+        // Loaded outside the map, so the query does not block other sessions
+        // that share its bin; a cart put there meanwhile wins
+        SessionCart loaded = new SessionCart(cartItemRepository.findLinesBySessionId(sessionId));
+        SessionCart existing = carts.putIfAbsent(sessionId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Replace the stored lines of the cart with the in-memory ones in one
+     * transaction. Joins the caller's transaction if there is one (a flush
+     * from a cart request), so it needs no second pooled connection; the cart
+     * only counts as clean once that transaction commits. Returns false if
+     * there was nothing to write or it failed; a failed cart stays dirty and
+     * is retried on the next run. A failure inside a caller's transaction is
+     * rethrown, as that transaction can no longer commit.
+     */
+    private boolean persist(String sessionId, SessionCart cart) {
+        Map<Long, Integer> lines;
+        long version;
+        synchronized (cart) {
+            if (!cart.isDirty()) {
+                return false;
+            }
+            lines = new LinkedHashMap<>(cart.lines);
+            version = cart.version;
+        }
+
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        try {
+            transaction.executeWithoutResult(status -> {
+                sessionLocks.lockForTransaction(sessionId);
+                Long cartId = cartRepository.findIdBySessionId(sessionId).orElse(null);
+                if (cartId == null) {
+                    if (lines.isEmpty()) {
+                        return;
+                    }
+                    cartId = cartRepository.save(new Cart(sessionId)).getId();
+                }
+                cartItemRepository.deleteBySessionId(sessionId);
+                cartItemWriter.upsertQuantities(cartId, lines);
+                cartRepository.refreshTotals(sessionId);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        markFlushed(cart, version);
+                    }
+                });
+            });
+        } catch (RuntimeException e) {
+            logger.error("Error flushing cart for session {}: {}", sessionId, e.getMessage(), e);
+            if (joined) {
+                throw e;
+            }
+            return false;
+        }
+        logger.debug("Flushed cart for session {} with {} lines", sessionId, lines.size());
+        return true;
+    }
+
+    private static void markFlushed(SessionCart cart, long version) {
+        synchronized (cart) {
+            // Changes made while writing keep the cart dirty for the next run
+            cart.flushedVersion = Math.max(cart.flushedVersion, version);
+        }
+    }
+}
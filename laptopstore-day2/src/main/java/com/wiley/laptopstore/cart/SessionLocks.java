@@ -0,0 +1,68 @@
+package com.wiley.laptopstore.cart;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks that serialize cart mutations of one session.
+ *
+ * A session ID always maps to the same lock out of a fixed set, so two quick
+ * clicks of one user run one after the other while other sessions (barring a
+ * rare stripe collision) never wait. The lock is held until the surrounding
+ * transaction completes, so the next mutation always sees the committed rows.
+ */
+@Component
+public class SessionLocks {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionLocks.class);
+
+    private static final int STRIPES = 1024;
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public SessionLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Lock the session for the rest of the current transaction. Must be called
+     * inside a transaction; the lock is released after commit or rollback.
+     */
+    public void lockForTransaction(String sessionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Session locks can only be taken inside a transaction");
+        }
+        ReentrantLock lock = lockFor(sessionId);
+        try {
+            if (!lock.tryLock(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for the cart lock of session " + sessionId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the cart lock of session " + sessionId, e);
+        }
+        logger.debug("Locked cart of session {}", sessionId);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private ReentrantLock lockFor(String sessionId) {
+        int hash = sessionId.hashCode();
+        // Spread the high bits so similar IDs land on different stripes
+        return locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+}
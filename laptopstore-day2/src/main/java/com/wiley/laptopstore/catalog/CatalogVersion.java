@@ -0,0 +1,24 @@
+package com.wiley.laptopstore.catalog;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the laptop catalog, bumped by LaptopService after
+ * every committed save or delete (for a save, from an afterCommit callback). Anything derived from the catalog (cached
+ * pages, rendered fragments) can be keyed by it instead of being hashed.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long get() {
+        return version.get();
+    }
+
+    public long increment() {
+        return version.incrementAndGet();
+    }
+}
@@ -0,0 +1,289 @@
+package com.wiley.laptopstore.catalog;
+
+import com.wiley.laptopstore.entity.Laptop;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Per-facet bitsets over laptop IDs, maintained incrementally.
+ *
+ * Each facet value owns a BitSet with one bit per laptop ID. Filtering is an
+ * OR of the selected values within a facet and an AND across facets; the count
+ * shown next to a value is computed against the selections of the other
+ * facets only, so customers can see how many results each choice would give.
+ */
+@Component
+public class LaptopFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaptopFacetIndex.class);
+
+    public enum Facet {
+        BRAND("brand", Laptop::getBrand),
+        CATEGORY("category", Laptop::getCategory),
+        PROCESSOR("processor", Laptop::getProcessor),
+        PRICE("price", laptop -> PriceBand.of(laptop.getPriceCents()).getParam());
+
+        private final String param;
+        private final Function<Laptop, String> extractor;
+
+        Facet(String param, Function<Laptop, String> extractor) {
+            this.param = param;
+            this.extractor = extractor;
+        }
+
+        public String getParam() {
+            return param;
+        }
+
+        String valueOf(Laptop laptop) {
+            return extractor.apply(laptop);
+        }
+    }
+
+    public enum PriceBand {
+        UNDER_1000("under-1000", "Under $1000", 0L),
+        FROM_1000("1000-1500", "$1000 - $1499", 1000_00L),
+        FROM_1500("1500-2000", "$1500 - $1999", 1500_00L),
+        FROM_2000("2000-plus", "$2000 and up", 2000_00L);
+
+        private final String param;
+        private final String label;
+        private final long lowerBoundCents;
+
+        PriceBand(String param, String label, long lowerBoundCents) {
+            this.param = param;
+            this.label = label;
+            this.lowerBoundCents = lowerBoundCents;
+        }
+
+        public String getParam() {
+            return param;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static PriceBand of(long priceCents) {
+            PriceBand band = UNDER_1000;
+            for (PriceBand candidate : values()) {
+                if (priceCents >= candidate.lowerBoundCents) {
+                    band = candidate;
+                }
+            }
+            return band;
+        }
+    }
+
+    /**
+     * Matching laptop IDs plus, per facet, the count for each value
+     */
+    public static class FacetResult {
+
+        private final BitSet matches;
+        private final Map<Facet, Map<String, Integer>> counts;
+
+        FacetResult(BitSet matches, Map<Facet, Map<String, Integer>> counts) {
+            this.matches = matches;
+            this.counts = counts;
+        }
+
+        public BitSet getMatches() {
+            return matches;
+        }
+
+        public Map<Facet, Map<String, Integer>> getCounts() {
+            return counts;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet all = new BitSet();
+    private final Map<Facet, Map<String, BitSet>> valueBits = new EnumMap<>(Facet.class);
+    private final Map<Long, Laptop> laptopsById = new HashMap<>();
+    // The values each laptop was indexed under; the Laptop itself may have
+    // been edited in place by the time it is re-indexed or removed
+    private final Map<Long, Map<Facet, String>> valuesById = new HashMap<>();
+
+    public LaptopFacetIndex() {
+        for (Facet facet : Facet.values()) {
+            valueBits.put(facet, new TreeMap<>(String.CASE_INSENSITIVE_ORDER));
+        }
+    }
+
+    /**
+     * Replace the whole index with the given laptops
+     */
+    public void rebuild(Collection<Laptop> laptops) {
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            laptopsById.clear();
+            valuesById.clear();
+            valueBits.values().forEach(Map::clear);
+            for (Laptop laptop : laptops) {
+                add(laptop);
+            }
+            logger.info("Facet index rebuilt with {} laptops", laptopsById.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a laptop, replacing any previous entry with the same ID
+     */
+    public void index(Laptop laptop) {
+        if (laptop == null || laptop.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLaptop(laptop.getId());
+            add(laptop);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLaptop(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filter by the selected values of each facet. Facets without a selection
+     * do not restrict the result.
+     */
+    public FacetResult filter(Map<Facet, Set<String>> selections) {
+        lock.readLock().lock();
+        try {
+            Map<Facet, BitSet> selected = new EnumMap<>(Facet.class);
+            for (Map.Entry<Facet, Set<String>> selection : selections.entrySet()) {
+                if (selection.getValue() == null || selection.getValue().isEmpty()) {
+                    continue;
+                }
+                BitSet bits = new BitSet();
+                for (String value : selection.getValue()) {
+                    BitSet valueSet = valueBits.get(selection.getKey()).get(value);
+                    if (valueSet != null) {
+                        bits.or(valueSet);
+                    }
+                }
+                selected.put(selection.getKey(), bits);
+            }
+
+            BitSet matches = (BitSet) all.clone();
+            selected.values().forEach(matches::and);
+
+            Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                BitSet base = (BitSet) all.clone();
+                for (Map.Entry<Facet, BitSet> other : selected.entrySet()) {
+                    if (other.getKey() != facet) {
+                        base.and(other.getValue());
+                    }
+                }
+                Map<String, Integer> facetCounts = new LinkedHashMap<>();
+                for (Map.Entry<String, BitSet> value : orderedValues(facet).entrySet()) {
+                    BitSet hits = (BitSet) value.getValue().clone();
+                    hits.and(base);
+                    facetCounts.put(value.getKey(), hits.cardinality());
+                }
+                counts.put(facet, facetCounts);
+            }
+            return new FacetResult(matches, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Laptops for the given bits, in ID order
+     */
+    public List<Laptop> laptopsFor(BitSet bits) {
+        lock.readLock().lock();
+        try {
+            List<Laptop> laptops = new ArrayList<>(bits.cardinality());
+            for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1)) {
+                Laptop laptop = laptopsById.get((long) bit);
+                if (laptop != null) {
+                    laptops.add(laptop);
+                }
+            }
+            return laptops;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, BitSet> orderedValues(Facet facet) {
+        if (facet != Facet.PRICE) {
+            return valueBits.get(facet);
+        }
+        // Price bands read best in ascending order rather than alphabetically
+        Map<String, BitSet> ordered = new LinkedHashMap<>();
+        for (PriceBand band : PriceBand.values()) {
+            BitSet bits = valueBits.get(Facet.PRICE).get(band.getParam());
+            if (bits != null) {
+                ordered.put(band.getParam(), bits);
+            }
+        }
+        return ordered;
+    }
+
+    private void add(Laptop laptop) {
+        int bit = Math.toIntExact(laptop.getId());
+        Map<Facet, String> values = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            String value = facet.valueOf(laptop);
+            if (value != null) {
+                valueBits.get(facet).computeIfAbsent(value, v -> new BitSet()).set(bit);
+                values.put(facet, value);
+            }
+        }
+        all.set(bit);
+        laptopsById.put(laptop.getId(), laptop);
+        valuesById.put(laptop.getId(), values);
+    }
+
+    private void removeLaptop(Long id) {
+        laptopsById.remove(id);
+        Map<Facet, String> indexed = valuesById.remove(id);
+        if (indexed == null) {
+            return;
+        }
+        int bit = Math.toIntExact(id);
+        for (Map.Entry<Facet, String> entry : indexed.entrySet()) {
+            Map<String, BitSet> values = valueBits.get(entry.getKey());
+            String value = entry.getValue();
+            BitSet bits = values.get(value);
+            if (bits != null) {
+                bits.clear(bit);
+                if (bits.isEmpty()) {
+                    values.remove(value);
+                }
+            }
+        }
+        all.clear(bit);
+    }
+}
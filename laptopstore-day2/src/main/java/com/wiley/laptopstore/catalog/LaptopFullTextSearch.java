@@ -0,0 +1,115 @@
+package com.wiley.laptopstore.catalog;
+
+import com.wiley.laptopstore.entity.Laptop;
+import com.wiley.laptopstore.repository.LaptopRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Database-side full-text search over the laptops table.
+ *
+ * On startup the full-text index is created for the database in use: H2's
+ * Lucene integration (FullTextLucene, kept current by triggers) locally, or a
+ * FULLTEXT index on MySQL. Queries are then ranked and paged by the database.
+ */
+@Component
+public class LaptopFullTextSearch {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaptopFullTextSearch.class);
+
+    static final String INDEXED_COLUMNS = "NAME,BRAND,CATEGORY,PROCESSOR,INFO";
+
+    enum Dialect { H2, MYSQL, UNSUPPORTED }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    private Dialect dialect = Dialect.UNSUPPORTED;
+
+    @PostConstruct
+    public void createIndex() {
+        try {
+            String product = jdbcTemplate.execute(
+                    (java.sql.Connection connection) -> connection.getMetaData().getDatabaseProductName());
+            if ("H2".equalsIgnoreCase(product)) {
+                createH2Index();
+                dialect = Dialect.H2;
+            } else if ("MySQL".equalsIgnoreCase(product)) {
+                createMySqlIndex();
+                dialect = Dialect.MYSQL;
+            } else {
+                logger.warn("Full-text search is not supported on {}", product);
+            }
+            logger.info("Full-text search initialized for {}", dialect);
+        } catch (Exception e) {
+            logger.error("Error creating full-text index, full-text search disabled: {}", e.getMessage(), e);
+            dialect = Dialect.UNSUPPORTED;
+        }
+    }
+
+    private void createH2Index() {
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS FTL_INIT FOR 'org.h2.fulltext.FullTextLucene.init'");
+        jdbcTemplate.execute("CALL FTL_INIT()");
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM FTL.INDEXES WHERE \"SCHEMA\" = 'PUBLIC' AND \"TABLE\" = 'LAPTOPS'", Integer.class);
+        if (existing == null || existing == 0) {
+            jdbcTemplate.execute("CALL FTL_CREATE_INDEX('PUBLIC', 'LAPTOPS', '" + INDEXED_COLUMNS + "')");
+            logger.info("Created H2 Lucene full-text index on laptops({})", INDEXED_COLUMNS);
+        }
+    }
+
+    private void createMySqlIndex() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = 'laptops' AND index_name = 'ft_laptops'", Integer.class);
+        if (existing == null || existing == 0) {
+            jdbcTemplate.execute("ALTER TABLE laptops ADD FULLTEXT INDEX ft_laptops (" + INDEXED_COLUMNS.toLowerCase() + ")");
+            logger.info("Created MySQL FULLTEXT index ft_laptops");
+        }
+    }
+
+    public boolean isAvailable() {
+        return dialect != Dialect.UNSUPPORTED;
+    }
+
+    /**
+     * Ranked search returning at most limit laptops, starting at offset
+     */
+    public List<Laptop> search(String query, int limit, int offset) {
+        List<String> tokens = LaptopSearchIndex.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return switch (dialect) {
+            case H2 -> laptopRepository.fullTextSearchH2(toLuceneQuery(tokens), limit, offset);
+            case MYSQL -> laptopRepository.fullTextSearchMySql(toMySqlQuery(tokens), limit, offset);
+            case UNSUPPORTED -> throw new IllegalStateException("Full-text search is not available");
+        };
+    }
+
+    /**
+     * Every token must match, either exactly (which is what drives the score)
+     * or as a prefix. Tokens are already stripped of query syntax.
+     */
+    static String toLuceneQuery(List<String> tokens) {
+        return tokens.stream()
+                .map(token -> "(" + token + " OR " + token + "*)")
+                .collect(Collectors.joining(" AND "));
+    }
+
+    static String toMySqlQuery(List<String> tokens) {
+        return tokens.stream()
+                .map(token -> "+" + token + "*")
+                .collect(Collectors.joining(" "));
+    }
+}
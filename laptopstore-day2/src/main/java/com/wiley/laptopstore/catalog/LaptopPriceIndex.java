@@ -0,0 +1,86 @@
+package com.wiley.laptopstore.catalog;
+
+import com.wiley.laptopstore.entity.Laptop;
+import com.wiley.laptopstore.entity.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Laptops ordered by price (in cents, ID breaking ties) for range queries.
+ *
+ * Range lookups return a view of the skip list, so callers can stream the
+ * laptops in price order and stop early without copying the catalog.
+ */
+@Component
+public class LaptopPriceIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaptopPriceIndex.class);
+
+    record PriceKey(long cents, long id) implements Comparable<PriceKey> {
+        @Override
+        public int compareTo(PriceKey other) {
+            int byPrice = Long.compare(cents, other.cents);
+            return byPrice != 0 ? byPrice : Long.compare(id, other.id);
+        }
+    }
+
+    private final ConcurrentSkipListMap<PriceKey, Laptop> byPrice = new ConcurrentSkipListMap<>();
+    private final Map<Long, PriceKey> keysById = new ConcurrentHashMap<>();
+
+    /**
+     * Replace the whole index with the given laptops
+     */
+    public synchronized void rebuild(Collection<Laptop> laptops) {
+        byPrice.clear();
+        keysById.clear();
+        for (Laptop laptop : laptops) {
+            index(laptop);
+        }
+        logger.info("Price index rebuilt with {} laptops", keysById.size());
+    }
+
+    /**
+     * Add a laptop, replacing any previous entry with the same ID
+     */
+    public synchronized void index(Laptop laptop) {
+        if (laptop == null || laptop.getId() == null || laptop.getPrice() == null) {
+            return;
+        }
+        remove(laptop.getId());
+        PriceKey key = new PriceKey(laptop.getPriceCents(), laptop.getId());
+        byPrice.put(key, laptop);
+        keysById.put(laptop.getId(), key);
+    }
+
+    public synchronized void remove(Long id) {
+        PriceKey key = keysById.remove(id);
+        if (key != null) {
+            byPrice.remove(key);
+        }
+    }
+
+    /**
+     * Laptops priced between min and max (inclusive, either bound may be null),
+     * lazily streamed in ascending or descending price order
+     */
+    public Stream<Laptop> streamByPrice(BigDecimal min, BigDecimal max, boolean ascending) {
+        long lowCents = min != null ? Money.toCents(min) : Long.MIN_VALUE;
+        long highCents = max != null ? Money.toCents(max) : Long.MAX_VALUE;
+        if (lowCents > highCents) {
+            return Stream.empty();
+        }
+        NavigableMap<PriceKey, Laptop> range = byPrice.subMap(
+                new PriceKey(lowCents, Long.MIN_VALUE), true,
+                new PriceKey(highCents, Long.MAX_VALUE), true);
+        return (ascending ? range : range.descendingMap()).values().stream();
+    }
+}
@@ -0,0 +1,164 @@
+package com.wiley.laptopstore.catalog;
+
+import com.wiley.laptopstore.entity.Laptop;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the searchable laptop fields
+ * (name, brand, category, processor and info).
+ *
+ * Tokens are lower-cased and stripped of diacritics; every query token is
+ * matched as a prefix, and all query tokens must match for a laptop to be
+ * returned. The index is kept up to date by LaptopService on save/delete.
+ */
+@Component
+public class LaptopSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaptopSearchIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final Map<Long, Laptop> laptopsById = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> tokensById = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+
+    /**
+     * Replace the whole index with the given laptops
+     */
+    public synchronized void rebuild(Collection<Laptop> laptops) {
+        laptopsById.clear();
+        tokensById.clear();
+        postings.clear();
+        for (Laptop laptop : laptops) {
+            index(laptop);
+        }
+        logger.info("Search index rebuilt with {} laptops and {} distinct tokens", laptopsById.size(), postings.size());
+    }
+
+    /**
+     * Add a laptop to the index, replacing any previous entry with the same ID
+     */
+    public synchronized void index(Laptop laptop) {
+        if (laptop == null || laptop.getId() == null) {
+            return;
+        }
+        remove(laptop.getId());
+
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(tokenize(laptop.getName()));
+        tokens.addAll(tokenize(laptop.getBrand()));
+        tokens.addAll(tokenize(laptop.getCategory()));
+        tokens.addAll(tokenize(laptop.getProcessor()));
+        tokens.addAll(tokenize(laptop.getInfo()));
+
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(laptop.getId());
+        }
+        tokensById.put(laptop.getId(), tokens);
+        laptopsById.put(laptop.getId(), laptop);
+        logger.debug("Indexed laptop {} with {} tokens", laptop.getId(), tokens.size());
+    }
+
+    /**
+     * Remove a laptop from the index
+     */
+    public synchronized void remove(Long id) {
+        Set<String> tokens = tokensById.remove(id);
+        laptopsById.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            postings.computeIfPresent(token, (t, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Find laptops matching every token of the query, ordered by ID
+     */
+    public List<Laptop> search(String query) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return getAll();
+        }
+
+        Set<Long> matches = null;
+        for (String token : new LinkedHashSet<>(queryTokens)) {
+            Set<Long> tokenMatches = new HashSet<>();
+            for (Set<Long> ids : postings.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                tokenMatches.addAll(ids);
+            }
+            if (matches == null) {
+                matches = tokenMatches;
+            } else {
+                matches.retainAll(tokenMatches);
+            }
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Laptop> results = new ArrayList<>(matches.size());
+        for (Long id : matches) {
+            Laptop laptop = laptopsById.get(id);
+            if (laptop != null) {
+                results.add(laptop);
+            }
+        }
+        results.sort(Comparator.comparing(Laptop::getId));
+        return results;
+    }
+
+    /**
+     * All indexed laptops, ordered by ID
+     */
+    public List<Laptop> getAll() {
+        List<Laptop> laptops = new ArrayList<>(laptopsById.values());
+        laptops.sort(Comparator.comparing(Laptop::getId));
+        return laptops;
+    }
+
+    public int size() {
+        return laptopsById.size();
+    }
+
+    /**
+     * Split text into normalized (lower-case, accent-free) tokens
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
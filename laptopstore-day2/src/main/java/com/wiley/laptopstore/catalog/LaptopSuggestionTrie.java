@@ -0,0 +1,195 @@
+package com.wiley.laptopstore.catalog;
+
+import com.wiley.laptopstore.entity.Laptop;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie of laptop names, brands and processors for typeahead.
+ *
+ * Every phrase is inserted once per word it contains ("Dell XPS 13" can be
+ * found by typing "dell", "xps" or "13"). Terminal nodes count how many
+ * laptops contributed a phrase, so removing one laptop does not drop a brand
+ * shared by others. Lookups walk the prefix and then collect the nearest
+ * completions breadth-first, so shorter completions come first.
+ */
+@Component
+public class LaptopSuggestionTrie {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaptopSuggestionTrie.class);
+
+    private static final class Node {
+        private final Map<Character, Node> children = new TreeMap<>();
+        private final Map<String, Integer> phrases = new HashMap<>();
+
+        private boolean isEmpty() {
+            return children.isEmpty() && phrases.isEmpty();
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, List<String>> phrasesById = new HashMap<>();
+
+    /**
+     * Replace the whole trie with the given laptops
+     */
+    public void rebuild(Collection<Laptop> laptops) {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.phrases.clear();
+            phrasesById.clear();
+            for (Laptop laptop : laptops) {
+                add(laptop);
+            }
+            logger.info("Suggestion trie rebuilt with {} laptops", phrasesById.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a laptop's phrases, replacing any phrases previously added for its ID
+     */
+    public void index(Laptop laptop) {
+        if (laptop == null || laptop.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removePhrases(laptop.getId());
+            add(laptop);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the phrases contributed by a laptop
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removePhrases(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit distinct phrases completing the given prefix
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = String.join(" ", LaptopSearchIndex.tokenize(prefix));
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            Set<String> suggestions = new LinkedHashSet<>();
+            Deque<Node> queue = new ArrayDeque<>();
+            queue.add(node);
+            while (!queue.isEmpty() && suggestions.size() < limit) {
+                Node current = queue.poll();
+                for (String phrase : current.phrases.keySet()) {
+                    suggestions.add(phrase);
+                    if (suggestions.size() == limit) {
+                        break;
+                    }
+                }
+                queue.addAll(current.children.values());
+            }
+            return new ArrayList<>(suggestions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Laptop laptop) {
+        List<String> phrases = new ArrayList<>();
+        for (String phrase : new String[] { laptop.getName(), laptop.getBrand(), laptop.getProcessor() }) {
+            if (phrase != null && !phrase.isBlank()) {
+                phrases.add(phrase.trim());
+            }
+        }
+        for (String phrase : phrases) {
+            for (String key : keysFor(phrase)) {
+                insert(key, phrase);
+            }
+        }
+        phrasesById.put(laptop.getId(), phrases);
+    }
+
+    private void removePhrases(Long id) {
+        List<String> phrases = phrasesById.remove(id);
+        if (phrases == null) {
+            return;
+        }
+        for (String phrase : phrases) {
+            for (String key : keysFor(phrase)) {
+                delete(key, phrase);
+            }
+        }
+    }
+
+    /**
+     * The normalized phrase starting at each of its words
+     */
+    private static List<String> keysFor(String phrase) {
+        List<String> tokens = LaptopSearchIndex.tokenize(phrase);
+        List<String> keys = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return keys;
+    }
+
+    private void insert(String key, String phrase) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        node.phrases.merge(phrase, 1, Integer::sum);
+    }
+
+    private void delete(String key, String phrase) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].children.get(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        path[key.length()].phrases.computeIfPresent(phrase, (p, count) -> count > 1 ? count - 1 : null);
+
+        // Prune nodes that no longer lead to any phrase
+        for (int i = key.length(); i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].children.remove(key.charAt(i - 1));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.wiley.laptopstore.config;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of password hashes computed at once.
+ *
+ * A hash deliberately burns a core for a noticeable time, so a login burst
+ * can starve catalog and cart requests. Callers beyond the limit wait up to
+ * the configured time for a permit and are then refused, which fails that
+ * login instead of queueing it indefinitely.
+ *
+ * Twin of the laptopapi class of the same name; change both together.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+    private final long waitMillis;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int maxConcurrent, long waitMillis) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.waitMillis = waitMillis;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        acquire();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        acquire();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only parses the hash, no need for a permit
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                throw new AuthenticationServiceException("Too many concurrent password checks, please try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted waiting to check password", e);
+        }
+    }
+}
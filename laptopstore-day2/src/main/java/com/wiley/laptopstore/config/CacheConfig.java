@@ -0,0 +1,22 @@
+package com.wiley.laptopstore.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring's cache abstraction. The caches themselves (Caffeine, bounded
+ * by size and TTL, with statistics) are configured in application.properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Single laptops keyed by ID */
+    public static final String LAPTOPS = "laptops";
+
+    /** Catalog pages keyed by their paging parameters */
+    public static final String LAPTOP_PAGES = "laptopPages";
+
+    /** Rendered home page product grids keyed by catalog version and paging parameters */
+    public static final String LAPTOP_GRID = "laptopGrid";
+}
@@ -0,0 +1,87 @@
+package com.wiley.laptopstore.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the password encoder used for user accounts.
+ *
+ * Hashes are stored with an {id} prefix, so the algorithm and its cost can
+ * change without invalidating stored passwords. Legacy hashes without a prefix
+ * are BCrypt. Hashes made with another algorithm or a lower BCrypt cost are
+ * reported by upgradeEncoding, so they are rehashed at the next login.
+ *
+ * laptopapi has an identical copy in com.api.laptopstore.api.security. The
+ * two applications are built separately with no shared module, so a change
+ * here has to be made there too.
+ */
+public final class PasswordHashing {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashing.class);
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+
+    private PasswordHashing() {
+    }
+
+    /**
+     * A delegating encoder that encodes new hashes with the given algorithm
+     * (bcrypt or pbkdf2) and still verifies both
+     */
+    public static PasswordEncoder delegatingEncoder(String algorithm, int bcryptStrength, int pbkdf2Iterations) {
+        String idForEncode = algorithm.toLowerCase();
+        if (!BCRYPT.equals(idForEncode) && !PBKDF2.equals(idForEncode)) {
+            throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+        }
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        logger.info("Password hashing with {} (bcrypt strength {}, pbkdf2 iterations {})",
+                   idForEncode, bcryptStrength, pbkdf2Iterations);
+        return encoder;
+    }
+
+    /**
+     * The highest BCrypt strength (at least minStrength) whose hash takes no
+     * longer than targetMillis on this machine. Measures minStrength once; each
+     * extra point of strength doubles the work.
+     */
+    public static int calibrateBcryptStrength(long targetMillis, int minStrength) {
+        // Warm up the JIT with a cheap hash so it does not skew the measurement
+        new BCryptPasswordEncoder(4).encode("calibration");
+
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        double millis = best / 1_000_000.0;
+        while (strength < MAX_BCRYPT_STRENGTH && millis * 2 <= targetMillis) {
+            strength++;
+            millis *= 2;
+        }
+        logger.info("Calibrated bcrypt strength {} (~{} ms per hash, target {} ms)",
+                   strength, Math.round(millis), targetMillis);
+        return strength;
+    }
+}
@@ -0,0 +1,12 @@
+package com.wiley.laptopstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. the cart write-behind flush)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,12 +1,19 @@
 package com.wiley.laptopstore.config;
 
+import com.wiley.laptopstore.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.DefaultAuthenticationEventPublisher;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
@@ -17,13 +24,15 @@ public class SecurityConfig {
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authenticationManager) throws Exception {
         logger.info("Configuring security filter chain");
         
         http
+            .authenticationManager(authenticationManager)
             .authorizeHttpRequests(authz -> authz
-                .requestMatchers("/", "/search-laptops", "/css/**", "/js/**", "/images/**", "/h2-console/**", "/cart/**", "/user/register", "/user/check-username", "/user/check-email").permitAll()
-                .requestMatchers("/add-laptop/**", "/delete-laptop/**").hasRole("ADMIN")
+                .requestMatchers("/", "/search-laptops", "/suggest-laptops", "/filter-laptops", "/price-range", "/css/**", "/js/**", "/images/**", "/h2-console/**", "/cart/**", "/user/register", "/user/check-username", "/user/check-email").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/add-laptop/**", "/delete-laptop/**", "/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .formLogin(form -> form
@@ -51,8 +60,43 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Form login against the user table, timed under laptopstore.login
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public AuthenticationManager authenticationManager(CustomUserDetailsService userDetailsService,
+                                                       PasswordEncoder passwordEncoder,
+                                                       MeterRegistry meterRegistry,
+                                                       ApplicationEventPublisher eventPublisher) {
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider(userDetailsService);
+        daoProvider.setPasswordEncoder(passwordEncoder);
+        // Rehash outdated passwords (other algorithm, lower cost) on successful login
+        daoProvider.setUserDetailsPasswordService(userDetailsService);
+        ProviderManager providerManager = new ProviderManager(new TimedAuthenticationProvider(daoProvider, meterRegistry));
+        providerManager.setAuthenticationEventPublisher(new DefaultAuthenticationEventPublisher(eventPublisher));
+        return providerManager;
+    }
+
+    /**
+     * Password encoder per laptopstore.password.*: BCrypt (cost calibrated at
+     * startup unless set) or PBKDF2 for new hashes, with a cap on concurrent
+     * hash computations
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${laptopstore.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${laptopstore.password.bcrypt-strength:0}") int bcryptStrength,
+                                           @Value("${laptopstore.password.target-hash-ms:250}") long targetHashMillis,
+                                           @Value("${laptopstore.password.pbkdf2-iterations:310000}") int pbkdf2Iterations,
+                                           @Value("${laptopstore.password.max-concurrent-hashes:0}") int maxConcurrentHashes,
+                                           @Value("${laptopstore.password.hash-wait-ms:2000}") long hashWaitMillis) {
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : PasswordHashing.calibrateBcryptStrength(targetHashMillis, 10);
+        int permits = maxConcurrentHashes > 0
+                ? maxConcurrentHashes
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        logger.info("Allowing {} concurrent password hashes", permits);
+        return new BoundedPasswordEncoder(
+                PasswordHashing.delegatingEncoder(algorithm, strength, pbkdf2Iterations), permits, hashWaitMillis);
     }
 }
@@ -2,17 +2,22 @@ package com.wiley.laptopstore.controller;
 
 import com.wiley.laptopstore.entity.Cart;
 import com.wiley.laptopstore.entity.Laptop;
+import com.wiley.laptopstore.service.CartBatchItem;
 import com.wiley.laptopstore.service.CartService;
+import com.wiley.laptopstore.service.CartSummaryResult;
 import com.wiley.laptopstore.service.LaptopService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import jakarta.servlet.http.HttpSession;
+import java.util.List;
 import java.util.Optional;
 
 @Controller
@@ -54,6 +59,9 @@ public class CartController {
             
             logger.info("Successfully added laptop {} to cart", laptopId);
             
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected adding laptop {} to cart: {}", laptopId, e.getMessage());
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
         } catch (Exception e) {
             logger.error("Error adding laptop to cart: {}", e.getMessage(), e);
             redirectAttributes.addFlashAttribute("errorMessage", 
@@ -191,4 +199,134 @@ public class CartController {
         String sessionId = session.getId();
         return cartService.getCartItemCount(sessionId);
     }
+    
+    /**
+     * Add item to cart (JSON); returns the new cart summary instead of redirecting
+     */
+    @PostMapping("/api/add")
+    @ResponseBody
+    public ResponseEntity<CartSummaryResult> addToCartJson(@RequestParam("laptopId") Long laptopId,
+                                                           @RequestParam(value = "quantity", defaultValue = "1") int quantity,
+                                                           HttpSession session) {
+        String sessionId = session.getId();
+        try {
+            Optional<Laptop> laptopOpt = laptopService.findById(laptopId);
+            if (laptopOpt.isEmpty()) {
+                return cartError(HttpStatus.NOT_FOUND, "Laptop not found!");
+            }
+            
+            Laptop laptop = laptopOpt.get();
+            cartService.addToCart(sessionId, laptop, quantity);
+            logger.info("Added laptop {} to cart with quantity {}", laptopId, quantity);
+            return cartSummary(HttpStatus.OK, sessionId, laptop.getName() + " has been added to your cart!");
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected adding laptop {} to cart: {}", laptopId, e.getMessage());
+            return cartError(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error adding laptop to cart: {}", e.getMessage(), e);
+            return cartError(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to add laptop to cart. Please try again.");
+        }
+    }
+    
+    /**
+     * Add several laptops to cart in one request (JSON body of laptopId and
+     * quantity pairs); all lines are added or none
+     */
+    @PostMapping("/api/batch")
+    @ResponseBody
+    public ResponseEntity<CartSummaryResult> addBatchToCartJson(@RequestBody List<CartBatchItem> items,
+                                                                HttpSession session) {
+        String sessionId = session.getId();
+        try {
+            int added = cartService.addAllToCart(sessionId, items);
+            logger.info("Added {} laptops to cart in one batch", added);
+            return cartSummary(HttpStatus.OK, sessionId, added + " laptops have been added to your cart!");
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected batch cart request: {}", e.getMessage());
+            return cartError(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error adding laptops to cart: {}", e.getMessage(), e);
+            return cartError(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to add laptops to cart. Please try again.");
+        }
+    }
+    
+    /**
+     * Update item quantity in cart (JSON)
+     */
+    @PostMapping("/api/update")
+    @ResponseBody
+    public ResponseEntity<CartSummaryResult> updateCartItemJson(@RequestParam("laptopId") Long laptopId,
+                                                                @RequestParam("quantity") int quantity,
+                                                                HttpSession session) {
+        String sessionId = session.getId();
+        try {
+            if (!cartService.updateQuantity(sessionId, laptopId, quantity)) {
+                return cartError(HttpStatus.NOT_FOUND, "Laptop not found in your cart!");
+            }
+            logger.info("Updated cart item {} to quantity {}", laptopId, quantity);
+            return cartSummary(HttpStatus.OK, sessionId, "Cart updated successfully!");
+        } catch (Exception e) {
+            logger.error("Error updating cart item: {}", e.getMessage(), e);
+            return cartError(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update cart. Please try again.");
+        }
+    }
+    
+    /**
+     * Remove item from cart (JSON)
+     */
+    @PostMapping("/api/remove")
+    @ResponseBody
+    public ResponseEntity<CartSummaryResult> removeFromCartJson(@RequestParam("laptopId") Long laptopId,
+                                                                HttpSession session) {
+        String sessionId = session.getId();
+        try {
+            if (!cartService.removeFromCart(sessionId, laptopId)) {
+                return cartError(HttpStatus.NOT_FOUND, "Laptop not found in your cart!");
+            }
+            logger.info("Removed laptop {} from cart", laptopId);
+            return cartSummary(HttpStatus.OK, sessionId, "The laptop has been removed from your cart!");
+        } catch (Exception e) {
+            logger.error("Error removing laptop from cart: {}", e.getMessage(), e);
+            return cartError(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to remove laptop from cart. Please try again.");
+        }
+    }
+    
+    /**
+     * Clear entire cart (JSON)
+     */
+    @PostMapping("/api/clear")
+    @ResponseBody
+    public ResponseEntity<CartSummaryResult> clearCartJson(HttpSession session) {
+        String sessionId = session.getId();
+        try {
+            cartService.clearCart(sessionId);
+            logger.info("Cleared cart for session: {}", sessionId);
+            return cartSummary(HttpStatus.OK, sessionId, "Cart cleared successfully!");
+        } catch (Exception e) {
+            logger.error("Error clearing cart: {}", e.getMessage(), e);
+            return cartError(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to clear cart. Please try again.");
+        }
+    }
+    
+    /**
+     * Current cart totals (JSON)
+     */
+    @GetMapping("/api/summary")
+    @ResponseBody
+    public ResponseEntity<CartSummaryResult> getCartSummary(HttpSession session) {
+        return cartSummary(HttpStatus.OK, session.getId(), null);
+    }
+    
+    private ResponseEntity<CartSummaryResult> cartSummary(HttpStatus status, String sessionId, String message) {
+        return ResponseEntity.status(status)
+                .body(new CartSummaryResult(cartService.getCartTotals(sessionId), message));
+    }
+    
+    /**
+     * Error body without totals; reading them again could fail the same way
+     * the action did
+     */
+    private ResponseEntity<CartSummaryResult> cartError(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(new CartSummaryResult(message));
+    }
 }
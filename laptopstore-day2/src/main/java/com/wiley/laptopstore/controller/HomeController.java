@@ -1,28 +1,47 @@
 package com.wiley.laptopstore.controller;
 
+import com.wiley.laptopstore.catalog.CatalogVersion;
+import com.wiley.laptopstore.catalog.LaptopFacetIndex;
 import com.wiley.laptopstore.entity.Laptop;
+import com.wiley.laptopstore.service.LaptopFacetResult;
+import com.wiley.laptopstore.service.LaptopPage;
 import com.wiley.laptopstore.service.LaptopService;
-import com.wiley.laptopstore.service.CartService;
+import com.wiley.laptopstore.service.LaptopSort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.csrf.CsrfToken;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.support.RequestContextUtils;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Controller
 public class HomeController {
@@ -33,30 +52,51 @@ public class HomeController {
     private LaptopService laptopService;
     
     @Autowired
-    private CartService cartService;
+    private LaptopGridCache laptopGridCache;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
 
     // Directory to store uploaded images
     private final String UPLOAD_DIR = "src/main/resources/static/images/";
 
     @GetMapping("/")
-    public String home(Model model, HttpSession session) {
-        logger.info("Accessing home page - displaying all laptops");
+    public String home(@RequestParam(value = "page", defaultValue = "0") int page,
+                       @RequestParam(value = "size", defaultValue = "" + LaptopService.DEFAULT_PAGE_SIZE) int size,
+                       @RequestParam(value = "sort", defaultValue = "id") String sort,
+                       @RequestParam(value = "afterId", required = false) Long afterId,
+                       @RequestParam(value = "afterPrice", required = false) BigDecimal afterPrice,
+                       Model model, HttpSession session, HttpServletRequest request, HttpServletResponse response,
+                       WebRequest webRequest, CsrfToken csrfToken) {
+        logger.info("Accessing home page - displaying laptop page {}", page);
         try {
-            List<Laptop> laptops = laptopService.getAllLaptops();
-            logger.debug("Successfully retrieved {} laptops from database", laptops.size());
-            
-            // Get cart count for current session
             String sessionId = session.getId();
-            int cartCount = cartService.getCartItemCount(sessionId);
-            logger.debug("Cart count for session {}: {}", sessionId, cartCount);
+            
+            // Flash messages are shown once, so those responses must not be revalidated.
+            // The ETag is computed before any repository call; the cart badge is not
+            // part of the page (the page script fetches it), so it needs no cart lookup.
+            if (RequestContextUtils.getInputFlashMap(request) == null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+                String etag = homeEtag(page, size, sort, afterId, afterPrice, sessionId, request.getRemoteUser());
+                if (webRequest.checkNotModified(etag)) {
+                    logger.debug("Home page not modified for session {}", sessionId);
+                    return null;
+                }
+            }
+            
+            boolean admin = request.isUserInRole("ADMIN");
+            String laptopGrid = laptopGridCache.render(page, size, sort, afterId, afterPrice, admin, csrfToken);
             
             model.addAttribute("title", "Wiley Laptop Store");
             model.addAttribute("welcomeMessage", "Welcome to Wiley Laptop Store!");
             model.addAttribute("description", "Discover the latest laptops with cutting-edge technology and unbeatable prices.");
-            model.addAttribute("laptops", laptops);
-            model.addAttribute("cartCount", cartCount);
+            model.addAttribute("laptopGrid", laptopGrid);
+            model.addAttribute("currentSort", LaptopSort.fromParam(sort).getParam());
+            model.addAttribute("pageSize", size);
+            model.addAttribute("facetResult", laptopService.getFacetCounts());
+            addFacetLabels(model);
             
-            logger.info("Home page loaded successfully with {} laptops, cart count: {}", laptops.size(), cartCount);
+            logger.info("Home page loaded successfully for page {}", page);
             return "home";
         } catch (Exception e) {
             logger.error("Error loading home page: {}", e.getMessage(), e);
@@ -129,13 +169,30 @@ public class HomeController {
     
     @GetMapping("/search-laptops")
     public String searchLaptops(@RequestParam(value = "searchQuery", required = false) String searchQuery, 
+                               @RequestParam(value = "page", defaultValue = "0") int page,
+                               @RequestParam(value = "size", defaultValue = "" + LaptopService.DEFAULT_PAGE_SIZE) int size,
+                               @RequestParam(value = "sort", defaultValue = "id") String sort,
+                               @RequestParam(value = "mode", defaultValue = "${laptopstore.search.mode:index}") String mode,
                                Model model) {
         logger.info("Searching laptops with query: {}", searchQuery);
         
         try {
-            List<Laptop> laptops = laptopService.searchLaptops(searchQuery);
-            model.addAttribute("laptops", laptops);
-            logger.info("Search completed successfully, found {} laptops", laptops.size());
+            // A blank query is a plain catalog page, which is served from the page cache
+            LaptopPage laptopPage;
+            if (!StringUtils.hasText(searchQuery)) {
+                laptopPage = laptopService.getLaptopPage(page, size, sort, null, null);
+            } else if ("fulltext".equalsIgnoreCase(mode)) {
+                laptopPage = laptopService.fullTextSearchLaptops(searchQuery, page, size);
+            } else {
+                laptopPage = laptopService.searchLaptops(searchQuery, page, size, sort);
+            }
+            model.addAttribute("laptops", laptopPage.getLaptops());
+            model.addAttribute("laptopPage", laptopPage);
+            model.addAttribute("pageLinkBase", UriComponentsBuilder.fromPath("/search-laptops")
+                    .queryParamIfPresent("searchQuery", Optional.ofNullable(searchQuery))
+                    .queryParam("mode", mode)
+                    .encode().build().toUriString());
+            logger.info("Search completed successfully, found {} laptops", laptopPage.getLaptops().size());
             return "search-results :: laptop-results";
         } catch (Exception e) {
             logger.error("Error searching laptops with query '{}': {}", searchQuery, e.getMessage(), e);
@@ -144,6 +201,98 @@ public class HomeController {
         }
     }
     
+    @GetMapping("/filter-laptops")
+    public String filterLaptops(@RequestParam(value = "brand", required = false) List<String> brands,
+                                @RequestParam(value = "category", required = false) List<String> categories,
+                                @RequestParam(value = "processor", required = false) List<String> processors,
+                                @RequestParam(value = "price", required = false) List<String> priceBands,
+                                @RequestParam(value = "page", defaultValue = "0") int page,
+                                @RequestParam(value = "size", defaultValue = "" + LaptopService.DEFAULT_PAGE_SIZE) int size,
+                                @RequestParam(value = "sort", defaultValue = "id") String sort,
+                                Model model) {
+        Map<String, List<String>> selections = new LinkedHashMap<>();
+        UriComponentsBuilder filterQuery = UriComponentsBuilder.newInstance();
+        addSelection(selections, filterQuery, "brand", brands);
+        addSelection(selections, filterQuery, "category", categories);
+        addSelection(selections, filterQuery, "processor", processors);
+        addSelection(selections, filterQuery, "price", priceBands);
+        logger.info("Filtering laptops with facets: {}", selections);
+        
+        LaptopFacetResult facetResult = laptopService.filterLaptops(selections, page, size, sort);
+        model.addAttribute("laptops", facetResult.getLaptopPage().getLaptops());
+        model.addAttribute("laptopPage", facetResult.getLaptopPage());
+        model.addAttribute("facetResult", facetResult);
+        String query = filterQuery.encode().build().getQuery();
+        model.addAttribute("pageLinkBase", "/filter-laptops?" + (query != null ? query : ""));
+        addFacetLabels(model);
+        logger.info("Facet filter completed successfully, showing {} laptops", facetResult.getLaptopPage().getLaptops().size());
+        return "filter-results";
+    }
+    
+    @GetMapping("/price-range")
+    public String priceRange(@RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+                             @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+                             @RequestParam(value = "page", defaultValue = "0") int page,
+                             @RequestParam(value = "size", defaultValue = "" + LaptopService.DEFAULT_PAGE_SIZE) int size,
+                             @RequestParam(value = "sort", defaultValue = "price") String sort,
+                             Model model) {
+        logger.info("Listing laptops priced between {} and {}", minPrice, maxPrice);
+        
+        LaptopPage laptopPage = laptopService.getLaptopsByPriceRange(minPrice, maxPrice, page, size, sort);
+        model.addAttribute("laptops", laptopPage.getLaptops());
+        model.addAttribute("laptopPage", laptopPage);
+        model.addAttribute("pageLinkBase", UriComponentsBuilder.fromPath("/price-range")
+                .queryParamIfPresent("minPrice", Optional.ofNullable(minPrice))
+                .queryParamIfPresent("maxPrice", Optional.ofNullable(maxPrice))
+                .build().toUriString());
+        logger.info("Price range listing completed successfully, showing {} laptops", laptopPage.getLaptops().size());
+        return "search-results :: laptop-results";
+    }
+    
+    @GetMapping("/suggest-laptops")
+    @ResponseBody
+    public List<String> suggestLaptops(@RequestParam(value = "q", required = false) String prefix,
+                                       @RequestParam(value = "limit", defaultValue = "8") int limit) {
+        logger.debug("Suggesting laptops for prefix: {}", prefix);
+        return laptopService.suggest(prefix, limit);
+    }
+    
+    private void addSelection(Map<String, List<String>> selections, UriComponentsBuilder query,
+                              String facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            selections.put(facet, values);
+            query.queryParam(facet, values.toArray());
+        }
+    }
+    
+    /**
+     * Strong ETag for the home page: the catalog version plus everything else
+     * the page shows (paging, user, session-bound CSRF token), hashed so the
+     * session ID is not exposed. Built from request values only, so a 304
+     * costs no database or cache lookup.
+     */
+    private String homeEtag(int page, int size, String sort, Long afterId, BigDecimal afterPrice,
+                            String sessionId, String username) {
+        String state = String.join("|", String.valueOf(page), String.valueOf(size), String.valueOf(sort),
+                String.valueOf(afterId), String.valueOf(afterPrice), sessionId, String.valueOf(username));
+        return "\"" + catalogVersion.get() + "-" + DigestUtils.md5DigestAsHex(state.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+    
+    private void addFacetLabels(Model model) {
+        Map<String, String> facetLabels = new LinkedHashMap<>();
+        facetLabels.put("brand", "Brand");
+        facetLabels.put("category", "Category");
+        facetLabels.put("processor", "Processor");
+        facetLabels.put("price", "Price");
+        model.addAttribute("facetLabels", facetLabels);
+        
+        Map<String, String> priceBandLabels = new LinkedHashMap<>();
+        for (LaptopFacetIndex.PriceBand band : LaptopFacetIndex.PriceBand.values()) {
+            priceBandLabels.put(band.getParam(), band.getLabel());
+        }
+        model.addAttribute("priceBandLabels", priceBandLabels);
+    }
+    
     private String saveImage(MultipartFile imageFile) throws IOException {
         logger.debug("Starting image save process for file: {}", imageFile.getOriginalFilename());
         
@@ -0,0 +1,79 @@
+package com.wiley.laptopstore.controller;
+
+import com.wiley.laptopstore.catalog.CatalogVersion;
+import com.wiley.laptopstore.config.CacheConfig;
+import com.wiley.laptopstore.service.LaptopPage;
+import com.wiley.laptopstore.service.LaptopService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Fragment cache for the product grid of the home page.
+ *
+ * The grid only depends on the catalog, the paging parameters and whether the
+ * user is an admin, so it is rendered once per combination and catalog version
+ * and kept as HTML. The CSRF token is the only per-user value in it; the cached
+ * HTML carries a placeholder that is swapped for the caller's token on the way out.
+ */
+@Component
+public class LaptopGridCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaptopGridCache.class);
+
+    static final String CSRF_TOKEN_PLACEHOLDER = "__LAPTOPSTORE_CSRF_TOKEN__";
+
+    @Autowired
+    private LaptopService laptopService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * The product grid HTML for one page of the catalog, ready for th:utext
+     */
+    public String render(int page, int size, String sort, Long afterId, BigDecimal afterPrice,
+                         boolean admin, CsrfToken csrfToken) {
+        // Bumping the version on every catalog write makes older entries unreachable
+        List<Object> key = List.of(catalogVersion.get(), admin, page, size, String.valueOf(sort),
+                String.valueOf(afterId), String.valueOf(afterPrice));
+        Cache cache = cacheManager.getCache(CacheConfig.LAPTOP_GRID);
+        String html = cache != null
+                ? cache.get(key, () -> renderGrid(page, size, sort, afterId, afterPrice, admin, csrfToken))
+                : renderGrid(page, size, sort, afterId, afterPrice, admin, csrfToken);
+        String token = csrfToken != null ? HtmlUtils.htmlEscape(csrfToken.getToken()) : "";
+        return html.replace(CSRF_TOKEN_PLACEHOLDER, token);
+    }
+
+    private String renderGrid(int page, int size, String sort, Long afterId, BigDecimal afterPrice,
+                              boolean admin, CsrfToken csrfToken) {
+        LaptopPage laptopPage = laptopService.getLaptopPage(page, size, sort, afterId, afterPrice);
+        logger.debug("Rendering product grid for page {} (sort {}, admin {})", page, sort, admin);
+
+        Context context = new Context(Locale.getDefault());
+        context.setVariable("laptops", laptopPage.getLaptops());
+        context.setVariable("laptopPage", laptopPage);
+        context.setVariable("admin", admin);
+        context.setVariable("csrfParameterName", csrfToken != null ? csrfToken.getParameterName() : "_csrf");
+        context.setVariable("csrfTokenPlaceholder", CSRF_TOKEN_PLACEHOLDER);
+        return templateEngine.process("laptop-grid", Set.of("laptop-grid"), context);
+    }
+}
@@ -7,7 +7,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "carts")
+@Table(name = "carts", indexes = {
+    // Every cart operation looks the cart up by session; one cart per session
+    @Index(name = "uk_carts_session_id", columnList = "session_id", unique = true),
+    // A logged-in user's cart is found by user when their session changes
+    @Index(name = "idx_carts_user_id", columnList = "user_id")
+})
 public class Cart {
     
     @Id
@@ -27,6 +32,26 @@ public class Cart {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Denormalized summary of the items, recomputed by CartRepository.refreshTotals
+    // on every cart mutation and read only through CartRepository.findSummaryBySessionId.
+    // They have no getters: getTotalItems()/getTotalPrice() below, which the cart
+    // page reads, compute from the loaded items instead.
+    @Column(name = "total_items", nullable = false)
+    private int storedItemCount;
+    
+    @Column(name = "total_price_cents", nullable = false)
+    private long storedPriceCents;
+    
+    // Totals of the loaded items, computed on first use and reset when items change
+    @Transient
+    private boolean itemTotalsComputed;
+    
+    @Transient
+    private int itemCount;
+    
+    @Transient
+    private long itemTotalCents;
+    
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<CartItem> items = new ArrayList<>();
     
@@ -88,31 +113,59 @@ public class Cart {
     
     public void setItems(List<CartItem> items) {
         this.items = items;
+        invalidateTotals();
     }
     
     // Helper methods
     public void addItem(CartItem item) {
         items.add(item);
         item.setCart(this);
+        invalidateTotals();
         updateTimestamp();
     }
     
     public void removeItem(CartItem item) {
         items.remove(item);
         item.setCart(null);
+        invalidateTotals();
         updateTimestamp();
     }
     
     public BigDecimal getTotalPrice() {
-        return items.stream()
-                .map(CartItem::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return Money.toBigDecimal(getTotalPriceCents());
+    }
+    
+    public long getTotalPriceCents() {
+        computeTotals();
+        return itemTotalCents;
     }
     
     public int getTotalItems() {
-        return items.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        computeTotals();
+        return itemCount;
+    }
+    
+    /**
+     * Forget the computed totals, e.g. after an item quantity changed
+     */
+    void invalidateTotals() {
+        itemTotalsComputed = false;
+    }
+    
+    private void computeTotals() {
+        if (itemTotalsComputed) {
+            return;
+        }
+        int count = 0;
+        long totalCents = 0;
+        for (int i = 0; i < items.size(); i++) {
+            CartItem item = items.get(i);
+            count += item.getQuantity();
+            totalCents = Math.addExact(totalCents, item.getSubtotalCents());
+        }
+        itemCount = count;
+        itemTotalCents = totalCents;
+        itemTotalsComputed = true;
     }
     
     private void updateTimestamp() {
@@ -5,7 +5,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = {
+    // One line per laptop in a cart; backs the cart line upsert and lookups by cart
+    @Index(name = "uk_cart_items_cart_laptop", columnList = "cart_id, laptop_id", unique = true)
+})
 public class CartItem {
     
     @Id
@@ -69,6 +72,7 @@ public class CartItem {
     
     public void setQuantity(int quantity) {
         this.quantity = quantity;
+        quantityChanged();
     }
     
     public LocalDateTime getCreatedAt() {
@@ -81,16 +85,28 @@ public class CartItem {
     
     // Helper methods
     public BigDecimal getSubtotal() {
-        return laptop.getPrice().multiply(BigDecimal.valueOf(quantity));
+        return Money.toBigDecimal(getSubtotalCents());
+    }
+    
+    public long getSubtotalCents() {
+        return Money.times(laptop.getPriceCents(), quantity);
     }
     
     public void increaseQuantity() {
         this.quantity++;
+        quantityChanged();
     }
     
     public void decreaseQuantity() {
         if (this.quantity > 1) {
             this.quantity--;
+            quantityChanged();
+        }
+    }
+    
+    private void quantityChanged() {
+        if (cart != null) {
+            cart.invalidateTotals();
         }
     }
 }
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "laptops")
+@Table(name = "laptops", indexes = {
+    // Serves price range filters and the (price, id) keyset pages
+    @Index(name = "idx_laptops_price", columnList = "price, id")
+})
 public class Laptop {
     
     @Id
@@ -23,6 +26,11 @@ public class Laptop {
     @Column(nullable = false)
     private BigDecimal price;
     
+    // The price in cents, kept in step with price by setPrice, for arithmetic
+    // and comparisons that should not allocate BigDecimals
+    @Column(name = "price_cents", nullable = false)
+    private long priceCents;
+    
     @Column(columnDefinition = "TEXT")
     private String info;
     
@@ -40,7 +48,7 @@ public class Laptop {
         this.name = name;
         this.brand = brand;
         this.category = category;
-        this.price = price;
+        setPrice(price);
         this.info = info;
         this.processor = processor;
         this.imagePath = imagePath;
@@ -85,6 +93,11 @@ public class Laptop {
     
     public void setPrice(BigDecimal price) {
         this.price = price;
+        this.priceCents = price != null ? Money.toCents(price) : 0;
+    }
+    
+    public long getPriceCents() {
+        return priceCents;
     }
     
     public String getInfo() {
@@ -0,0 +1,34 @@
+package com.wiley.laptopstore.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money as a long number of cents (minor units).
+ *
+ * Prices and cart totals are added and multiplied as plain longs on the hot
+ * paths; BigDecimal is only used at the edges (forms, templates, JSON).
+ */
+public final class Money {
+    
+    private Money() {
+    }
+    
+    /**
+     * Cents for an amount, rounded half-up to two decimals
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+    
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    /**
+     * Price times quantity, failing instead of silently overflowing
+     */
+    public static long times(long cents, int quantity) {
+        return Math.multiplyExact(cents, (long) quantity);
+    }
+}
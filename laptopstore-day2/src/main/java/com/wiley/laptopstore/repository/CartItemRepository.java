@@ -4,8 +4,13 @@ import com.wiley.laptopstore.entity.Cart;
 import com.wiley.laptopstore.entity.CartItem;
 import com.wiley.laptopstore.entity.Laptop;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,8 +21,115 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
      */
     Optional<CartItem> findByCartAndLaptop(Cart cart, Laptop laptop);
     
+    /**
+     * The laptop IDs, prices and quantities in the cart of a session, without loading entities
+     */
+    @Query("SELECT i.laptop.id AS laptopId, i.laptop.priceCents AS priceCents, i.quantity AS quantity FROM CartItem i " +
+           "WHERE i.cart.sessionId = :sessionId ORDER BY i.id")
+    List<CartLine> findLinesBySessionId(@Param("sessionId") String sessionId);
+    
     /**
      * Delete all cart items for a specific cart
      */
     void deleteByCart(Cart cart);
+    
+    /**
+     * Add quantity to the cart's line for a laptop, inserting the line if it
+     * does not exist yet (H2). Relies on the unique (cart_id, laptop_id)
+     * constraint, so one statement replaces the find-then-insert-or-update
+     * round trips. Call through CartItemWriter, which picks the variant
+     * for the database in use.
+     */
+    @Modifying
+    @Query(value = "MERGE INTO cart_items t " +
+                   "USING (VALUES (CAST(:cartId AS BIGINT), CAST(:laptopId AS BIGINT), CAST(:quantity AS INT))) " +
+                   "AS s(cart_id, laptop_id, quantity) " +
+                   "ON t.cart_id = s.cart_id AND t.laptop_id = s.laptop_id " +
+                   "WHEN MATCHED THEN UPDATE SET t.quantity = t.quantity + s.quantity " +
+                   "WHEN NOT MATCHED THEN INSERT (cart_id, laptop_id, quantity, created_at) " +
+                   "VALUES (s.cart_id, s.laptop_id, s.quantity, CURRENT_TIMESTAMP)",
+           nativeQuery = true)
+    int upsertQuantityH2(@Param("cartId") Long cartId,
+                         @Param("laptopId") Long laptopId,
+                         @Param("quantity") int quantity);
+    
+    /**
+     * MySQL variant of upsertQuantityH2
+     */
+    @Modifying
+    @Query(value = "INSERT INTO cart_items (cart_id, laptop_id, quantity, created_at) " +
+                   "VALUES (:cartId, :laptopId, :quantity, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity)",
+           nativeQuery = true)
+    int upsertQuantityMySql(@Param("cartId") Long cartId,
+                            @Param("laptopId") Long laptopId,
+                            @Param("quantity") int quantity);
+    
+    /**
+     * Add all lines of one cart to another in a single statement, summing the
+     * quantities of laptops that are in both (H2)
+     */
+    @Modifying
+    @Query(value = "MERGE INTO cart_items t " +
+                   "USING (SELECT CAST(:targetCartId AS BIGINT) AS cart_id, laptop_id, quantity " +
+                   "FROM cart_items WHERE cart_id = :sourceCartId) s " +
+                   "ON t.cart_id = s.cart_id AND t.laptop_id = s.laptop_id " +
+                   "WHEN MATCHED THEN UPDATE SET t.quantity = t.quantity + s.quantity " +
+                   "WHEN NOT MATCHED THEN INSERT (cart_id, laptop_id, quantity, created_at) " +
+                   "VALUES (s.cart_id, s.laptop_id, s.quantity, CURRENT_TIMESTAMP)",
+           nativeQuery = true)
+    int mergeCartLinesH2(@Param("sourceCartId") Long sourceCartId, @Param("targetCartId") Long targetCartId);
+    
+    /**
+     * MySQL variant of mergeCartLinesH2
+     */
+    @Modifying
+    @Query(value = "INSERT INTO cart_items (cart_id, laptop_id, quantity, created_at) " +
+                   "SELECT :targetCartId, s.laptop_id, s.quantity, CURRENT_TIMESTAMP " +
+                   "FROM cart_items s WHERE s.cart_id = :sourceCartId " +
+                   "ON DUPLICATE KEY UPDATE quantity = cart_items.quantity + VALUES(quantity)",
+           nativeQuery = true)
+    int mergeCartLinesMySql(@Param("sourceCartId") Long sourceCartId, @Param("targetCartId") Long targetCartId);
+    
+    /**
+     * Delete all lines of a cart
+     */
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cart.id = :cartId")
+    int deleteByCartId(@Param("cartId") Long cartId);
+    
+    /**
+     * Set the quantity of a laptop in the cart of a session
+     */
+    @Modifying
+    @Query("UPDATE CartItem i SET i.quantity = :quantity WHERE i.laptop.id = :laptopId " +
+           "AND i.cart.id IN (SELECT c.id FROM Cart c WHERE c.sessionId = :sessionId)")
+    int updateQuantity(@Param("sessionId") String sessionId,
+                       @Param("laptopId") Long laptopId,
+                       @Param("quantity") int quantity);
+    
+    /**
+     * Delete the line for a laptop from the cart of a session
+     */
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.laptop.id = :laptopId " +
+           "AND i.cart.id IN (SELECT c.id FROM Cart c WHERE c.sessionId = :sessionId)")
+    int deleteBySessionIdAndLaptopId(@Param("sessionId") String sessionId,
+                                     @Param("laptopId") Long laptopId);
+    
+    /**
+     * Delete all lines from the cart of a session
+     */
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cart.id IN (SELECT c.id FROM Cart c WHERE c.sessionId = :sessionId)")
+    int deleteBySessionId(@Param("sessionId") String sessionId);
+    
+    /**
+     * Delete the items of the given carts that have not been updated since the cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cart.id IN " +
+           "(SELECT c.id FROM Cart c WHERE c.id IN :cartIds AND c.updatedAt < :cutoffDate)")
+    int deleteByStaleCartIds(@Param("cartIds") List<Long> cartIds,
+                             @Param("cutoffDate") LocalDateTime cutoffDate);
 }
@@ -0,0 +1,106 @@
+package com.wiley.laptopstore.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cart line upserts for the database in use.
+ *
+ * The upserts rely on the unique (cart_id, laptop_id) constraint and have no
+ * portable SQL form: H2 gets MERGE, MySQL gets INSERT ... ON DUPLICATE KEY
+ * UPDATE. The database is detected on startup, which fails on any other
+ * database rather than at the first cart write. Batched writes send all
+ * lines of a cart in one JDBC batch; Hibernate cannot batch these itself, as
+ * the statements are native and cart_items uses IDENTITY keys. Everything
+ * joins the surrounding JPA transaction.
+ */
+@Repository
+public class CartItemWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartItemWriter.class);
+
+    static final String UPSERT_QUANTITY_H2_SQL =
+            "MERGE INTO cart_items t " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS INT))) " +
+            "AS s(cart_id, laptop_id, quantity) " +
+            "ON t.cart_id = s.cart_id AND t.laptop_id = s.laptop_id " +
+            "WHEN MATCHED THEN UPDATE SET t.quantity = t.quantity + s.quantity " +
+            "WHEN NOT MATCHED THEN INSERT (cart_id, laptop_id, quantity, created_at) " +
+            "VALUES (s.cart_id, s.laptop_id, s.quantity, CURRENT_TIMESTAMP)";
+
+    static final String UPSERT_QUANTITY_MYSQL_SQL =
+            "INSERT INTO cart_items (cart_id, laptop_id, quantity, created_at) " +
+            "VALUES (?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity)";
+
+    enum Dialect { H2, MYSQL }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    private Dialect dialect;
+
+    @PostConstruct
+    public void detectDialect() {
+        String product = jdbcTemplate.execute(
+                (java.sql.Connection connection) -> connection.getMetaData().getDatabaseProductName());
+        if ("H2".equalsIgnoreCase(product)) {
+            dialect = Dialect.H2;
+        } else if ("MySQL".equalsIgnoreCase(product)) {
+            dialect = Dialect.MYSQL;
+        } else {
+            throw new IllegalStateException("Cart upserts are not supported on " + product
+                    + "; only H2 and MySQL are");
+        }
+        logger.info("Cart upserts initialized for {}", dialect);
+    }
+
+    /**
+     * Add quantity to the cart's line for a laptop, inserting the line if it
+     * does not exist yet
+     */
+    public void upsertQuantity(Long cartId, Long laptopId, int quantity) {
+        switch (dialect) {
+            case H2 -> cartItemRepository.upsertQuantityH2(cartId, laptopId, quantity);
+            case MYSQL -> cartItemRepository.upsertQuantityMySql(cartId, laptopId, quantity);
+        }
+    }
+
+    /**
+     * Add each quantity to the cart's line for its laptop, inserting missing
+     * lines, in a single JDBC batch
+     */
+    public void upsertQuantities(Long cartId, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            rows.add(new Object[] { cartId, line.getKey(), line.getValue() });
+        }
+        jdbcTemplate.batchUpdate(dialect == Dialect.MYSQL ? UPSERT_QUANTITY_MYSQL_SQL : UPSERT_QUANTITY_H2_SQL, rows);
+    }
+
+    /**
+     * Add all lines of one cart to another, summing the quantities of laptops
+     * that are in both. Returns the affected row count as reported by the
+     * database (MySQL counts an updated line twice).
+     */
+    public int mergeCartLines(Long sourceCartId, Long targetCartId) {
+        return switch (dialect) {
+            case H2 -> cartItemRepository.mergeCartLinesH2(sourceCartId, targetCartId);
+            case MYSQL -> cartItemRepository.mergeCartLinesMySql(sourceCartId, targetCartId);
+        };
+    }
+}
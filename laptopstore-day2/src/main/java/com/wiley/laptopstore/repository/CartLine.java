@@ -0,0 +1,13 @@
+package com.wiley.laptopstore.repository;
+
+/**
+ * Projection of one cart line: a laptop ID, its price in cents and its quantity
+ */
+public interface CartLine {
+    
+    Long getLaptopId();
+    
+    long getPriceCents();
+    
+    int getQuantity();
+}
@@ -2,11 +2,15 @@ package com.wiley.laptopstore.repository;
 
 import com.wiley.laptopstore.entity.Cart;
 import com.wiley.laptopstore.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,6 +21,69 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
      */
     Optional<Cart> findBySessionId(String sessionId);
     
+    /**
+     * Find only the ID of the cart for a session, without loading it
+     */
+    @Query("SELECT c.id FROM Cart c WHERE c.sessionId = :sessionId")
+    Optional<Long> findIdBySessionId(@Param("sessionId") String sessionId);
+    
+    /**
+     * Find only the ID of a user's persistent cart
+     */
+    @Query("SELECT c.id FROM Cart c WHERE c.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Move a cart to another session and assign it to a user
+     */
+    @Modifying
+    @Query(value = "UPDATE carts SET session_id = :sessionId, user_id = :userId, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE id = :cartId",
+           nativeQuery = true)
+    int reassign(@Param("cartId") Long cartId, @Param("sessionId") String sessionId, @Param("userId") Long userId);
+    
+    /**
+     * Delete a cart without loading it. Its items must be deleted first.
+     */
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id = :cartId")
+    int deleteCart(@Param("cartId") Long cartId);
+    
+    /**
+     * Read the stored item count and total price of the cart for a session,
+     * without joining its items
+     */
+    @Query("SELECT c.storedItemCount AS totalItems, c.storedPriceCents AS totalPriceCents FROM Cart c WHERE c.sessionId = :sessionId")
+    Optional<CartSummary> findSummaryBySessionId(@Param("sessionId") String sessionId);
+    
+    /**
+     * Recompute the stored totals of the cart for a session from its items and
+     * touch its update time, in one statement
+     */
+    @Modifying
+    @Query(value = "UPDATE carts c SET " +
+                   "total_items = COALESCE((SELECT SUM(i.quantity) FROM cart_items i WHERE i.cart_id = c.id), 0), " +
+                   "total_price_cents = COALESCE((SELECT SUM(i.quantity * l.price_cents) FROM cart_items i " +
+                   "JOIN laptops l ON l.id = i.laptop_id WHERE i.cart_id = c.id), 0), " +
+                   "updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE c.session_id = :sessionId",
+           nativeQuery = true)
+    int refreshTotals(@Param("sessionId") String sessionId);
+    
+    /**
+     * Recompute the stored totals of every cart holding a laptop, after its
+     * price changed. Leaves the update time alone, so a repricing does not
+     * keep an abandoned cart alive.
+     */
+    @Modifying
+    @Query(value = "UPDATE carts c SET " +
+                   "total_items = COALESCE((SELECT SUM(i.quantity) FROM cart_items i WHERE i.cart_id = c.id), 0), " +
+                   "total_price_cents = COALESCE((SELECT SUM(i.quantity * l.price_cents) FROM cart_items i " +
+                   "JOIN laptops l ON l.id = i.laptop_id WHERE i.cart_id = c.id), 0) " +
+                   "WHERE c.id IN (SELECT i.cart_id FROM cart_items i WHERE i.laptop_id = :laptopId)",
+           nativeQuery = true)
+    int refreshTotalsForLaptop(@Param("laptopId") Long laptopId);
+    
     /**
      * Find a cart by user
      */
@@ -34,9 +101,24 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items i LEFT JOIN FETCH i.laptop WHERE c.user = :user")
     Optional<Cart> findByUserWithItems(@Param("user") User user);
     
+    /**
+     * IDs of carts not updated since the cutoff, oldest IDs first, one page at a time
+     */
+    @Query("SELECT c.id FROM Cart c WHERE c.updatedAt < :cutoffDate ORDER BY c.id")
+    List<Long> findIdsUpdatedBefore(@Param("cutoffDate") LocalDateTime cutoffDate, Pageable pageable);
+    
+    /**
+     * Delete the given carts, skipping any that were updated after the cutoff
+     * in the meantime. Their items must be deleted first.
+     */
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id IN :ids AND c.updatedAt < :cutoffDate")
+    int deleteStale(@Param("ids") List<Long> ids, @Param("cutoffDate") LocalDateTime cutoffDate);
+    
     /**
      * Delete carts older than a certain number of days
      */
+    @Modifying
     @Query("DELETE FROM Cart c WHERE c.updatedAt < :cutoffDate")
     void deleteOldCarts(@Param("cutoffDate") java.time.LocalDateTime cutoffDate);
 }
@@ -0,0 +1,11 @@
+package com.wiley.laptopstore.repository;
+
+/**
+ * Projection of the denormalized totals stored on a cart row
+ */
+public interface CartSummary {
+    
+    int getTotalItems();
+    
+    long getTotalPriceCents();
+}
@@ -1,10 +1,69 @@
 package com.wiley.laptopstore.repository;
 
 import com.wiley.laptopstore.entity.Laptop;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 @Repository
 public interface LaptopRepository extends JpaRepository<Laptop, Long> {
-    // Additional custom queries can be added here if needed
+    
+    /**
+     * Find one page of laptops without running a count query
+     */
+    Slice<Laptop> findAllBy(Pageable pageable);
+    
+    /**
+     * Keyset page ordered by ID: laptops that come after the given ID
+     */
+    @Query("SELECT l FROM Laptop l WHERE l.id > :afterId ORDER BY l.id ASC")
+    List<Laptop> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Keyset page ordered by price ascending (ID breaks ties)
+     */
+    @Query("SELECT l FROM Laptop l WHERE l.price > :afterPrice OR (l.price = :afterPrice AND l.id > :afterId) " +
+           "ORDER BY l.price ASC, l.id ASC")
+    List<Laptop> findPageAfterPrice(@Param("afterPrice") BigDecimal afterPrice,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+    
+    /**
+     * Keyset page ordered by price descending (ID breaks ties)
+     */
+    @Query("SELECT l FROM Laptop l WHERE l.price < :afterPrice OR (l.price = :afterPrice AND l.id < :afterId) " +
+           "ORDER BY l.price DESC, l.id DESC")
+    List<Laptop> findPageBeforePrice(@Param("afterPrice") BigDecimal afterPrice,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
+    
+    /**
+     * Full-text search through H2's Lucene index (FTL_*), best matches first.
+     * Paging is applied inside Lucene, so only the requested hits are joined.
+     */
+    @Query(value = "SELECT l.* FROM FTL_SEARCH_DATA(:query, :limit, :offset) ft " +
+                   "JOIN laptops l ON l.id = CAST(ft.\"KEYS\"[1] AS BIGINT) " +
+                   "ORDER BY ft.SCORE DESC, l.id ASC",
+           nativeQuery = true)
+    List<Laptop> fullTextSearchH2(@Param("query") String query,
+                                  @Param("limit") int limit,
+                                  @Param("offset") int offset);
+    
+    /**
+     * Full-text search through the MySQL FULLTEXT index, best matches first
+     */
+    @Query(value = "SELECT l.* FROM laptops l " +
+                   "WHERE MATCH(l.name, l.brand, l.category, l.processor, l.info) AGAINST (:query IN BOOLEAN MODE) " +
+                   "ORDER BY MATCH(l.name, l.brand, l.category, l.processor, l.info) AGAINST (:query IN BOOLEAN MODE) DESC, l.id ASC " +
+                   "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<Laptop> fullTextSearchMySql(@Param("query") String query,
+                                     @Param("limit") int limit,
+                                     @Param("offset") int offset);
 }
@@ -0,0 +1,34 @@
+package com.wiley.laptopstore.service;
+
+/**
+ * One line of a batch cart request: a laptop and the quantity to add
+ */
+public class CartBatchItem {
+    
+    private Long laptopId;
+    private int quantity = 1;
+    
+    public CartBatchItem() {
+    }
+    
+    public CartBatchItem(Long laptopId, int quantity) {
+        this.laptopId = laptopId;
+        this.quantity = quantity;
+    }
+    
+    public Long getLaptopId() {
+        return laptopId;
+    }
+    
+    public void setLaptopId(Long laptopId) {
+        this.laptopId = laptopId;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
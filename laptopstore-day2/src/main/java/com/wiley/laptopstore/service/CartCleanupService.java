@@ -0,0 +1,100 @@
+package com.wiley.laptopstore.service;
+
+import com.wiley.laptopstore.repository.CartItemRepository;
+import com.wiley.laptopstore.repository.CartRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Background purge of abandoned carts.
+ *
+ * Carts not updated for laptopstore.cart.purge.max-age-days are deleted with
+ * their items in chunks of laptopstore.cart.purge.batch-size, one short
+ * transaction per chunk, so the purge never holds locks on large ranges of
+ * the cart tables. Each run logs and records (under laptopstore.cart.purge.*)
+ * how many rows it deleted and how long it took.
+ */
+@Service
+public class CartCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartCleanupService.class);
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${laptopstore.cart.purge.max-age-days:30}")
+    private int maxAgeDays;
+
+    @Value("${laptopstore.cart.purge.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${laptopstore.cart.purge.interval-ms:3600000}",
+               fixedDelayString = "${laptopstore.cart.purge.interval-ms:3600000}")
+    public void purgeAbandonedCarts() {
+        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(maxAgeDays);
+        logger.info("Purging carts not updated since {} in batches of {}", cutoffDate, batchSize);
+
+        long start = System.nanoTime();
+        int cartsDeleted = 0;
+        int itemsDeleted = 0;
+        int batches = 0;
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            while (true) {
+                int[] deleted = transaction.execute(status -> {
+                    List<Long> cartIds = cartRepository.findIdsUpdatedBefore(cutoffDate, PageRequest.of(0, batchSize));
+                    if (cartIds.isEmpty()) {
+                        return new int[] { 0, 0, 0 };
+                    }
+                    int items = cartItemRepository.deleteByStaleCartIds(cartIds, cutoffDate);
+                    int carts = cartRepository.deleteStale(cartIds, cutoffDate);
+                    return new int[] { cartIds.size(), carts, items };
+                });
+                if (deleted[0] == 0) {
+                    break;
+                }
+                batches++;
+                cartsDeleted += deleted[1];
+                itemsDeleted += deleted[2];
+                logger.debug("Purge batch {} deleted {} carts and {} items", batches, deleted[1], deleted[2]);
+                if (deleted[0] < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error purging abandoned carts: {}", e.getMessage(), e);
+        } finally {
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            Timer.builder("laptopstore.cart.purge")
+                    .description("Duration of abandoned cart purge runs")
+                    .register(meterRegistry)
+                    .record(duration);
+            meterRegistry.counter("laptopstore.cart.purge.deleted", "table", "carts").increment(cartsDeleted);
+            meterRegistry.counter("laptopstore.cart.purge.deleted", "table", "cart_items").increment(itemsDeleted);
+            logger.info("Cart purge deleted {} carts and {} items in {} batches, took {} ms",
+                       cartsDeleted, itemsDeleted, batches, duration.toMillis());
+        }
+    }
+}
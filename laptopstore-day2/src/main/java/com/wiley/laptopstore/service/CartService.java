@@ -1,17 +1,32 @@
 package com.wiley.laptopstore.service;
 
+import com.wiley.laptopstore.cart.CartTotals;
+import com.wiley.laptopstore.cart.SessionCartStore;
+import com.wiley.laptopstore.cart.SessionLocks;
 import com.wiley.laptopstore.entity.Cart;
 import com.wiley.laptopstore.entity.CartItem;
 import com.wiley.laptopstore.entity.Laptop;
+import com.wiley.laptopstore.repository.CartItemWriter;
 import com.wiley.laptopstore.repository.CartRepository;
 import com.wiley.laptopstore.repository.CartItemRepository;
+import com.wiley.laptopstore.repository.LaptopRepository;
+import com.wiley.laptopstore.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
@@ -25,13 +40,35 @@ public class CartService {
     @Autowired
     private CartItemRepository cartItemRepository;
     
+    @Autowired
+    private CartItemWriter cartItemWriter;
+    
+    @Autowired
+    private LaptopRepository laptopRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Serializes mutations of one session's cart; see SessionLocks
+    @Autowired
+    private SessionLocks sessionLocks;
+    
+    // Present only with laptopstore.cart.store=memory; carts then live in memory
+    // and are written to the database behind the scenes
+    @Autowired(required = false)
+    private SessionCartStore sessionCartStore;
+    
     /**
      * Get or create a cart for the given session ID
      */
     public Cart getOrCreateCart(String sessionId) {
         logger.info("Getting or creating cart for session: {}", sessionId);
         
-        Optional<Cart> existingCart = cartRepository.findBySessionIdWithItems(sessionId);
+        sessionLocks.lockForTransaction(sessionId);
+        Optional<Cart> existingCart = timedLookup("cartWithItems", () -> cartRepository.findBySessionIdWithItems(sessionId));
         if (existingCart.isPresent()) {
             logger.info("Found existing cart with ID: {}", existingCart.get().getId());
             return existingCart.get();
@@ -44,91 +81,146 @@ public class CartService {
     }
     
     /**
-     * Add a laptop to the cart
+     * Add a laptop to the cart. Only the cart ID is looked up (or the cart
+     * created); the line itself is upserted in a single statement. The
+     * quantity must be positive, as the upsert adds it to the line as is.
      */
     public void addToCart(String sessionId, Laptop laptop, int quantity) {
         logger.info("Adding laptop {} to cart for session: {}, quantity: {}", 
                    laptop.getId(), sessionId, quantity);
         
-        Cart cart = getOrCreateCart(sessionId);
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        
+        sessionLocks.lockForTransaction(sessionId);
+        if (sessionCartStore != null) {
+            sessionCartStore.add(sessionId, laptop.getId(), laptop.getPriceCents(), quantity);
+            return;
+        }
         
-        // Check if laptop is already in cart
-        Optional<CartItem> existingItem = cartItemRepository.findByCartAndLaptop(cart, laptop);
+        Long cartId = timedLookup("cartId", () -> cartRepository.findIdBySessionId(sessionId))
+                .orElseGet(() -> {
+                    Cart savedCart = cartRepository.save(new Cart(sessionId));
+                    logger.info("Created new cart with ID: {}", savedCart.getId());
+                    return savedCart.getId();
+                });
         
-        if (existingItem.isPresent()) {
-            // Update quantity
-            CartItem item = existingItem.get();
-            item.setQuantity(item.getQuantity() + quantity);
-            cartItemRepository.save(item);
-            logger.info("Updated quantity for laptop {} in cart. New quantity: {}", 
-                       laptop.getId(), item.getQuantity());
-        } else {
-            // Add new item
-            CartItem newItem = new CartItem(cart, laptop, quantity);
-            cart.addItem(newItem);
-            cartItemRepository.save(newItem);
-            logger.info("Added new item for laptop {} to cart", laptop.getId());
+        cartItemWriter.upsertQuantity(cartId, laptop.getId(), quantity);
+        cartRepository.refreshTotals(sessionId);
+        logger.info("Added {} of laptop {} to cart {}", quantity, laptop.getId(), cartId);
+    }
+    
+    /**
+     * Add several laptops to the cart at once. The laptops are loaded with one
+     * query and all lines are upserted in one JDBC batch in this transaction;
+     * if any laptop is unknown or any quantity is not positive nothing is added.
+     * Returns the total quantity added.
+     */
+    public int addAllToCart(String sessionId, List<CartBatchItem> items) {
+        logger.info("Adding {} lines to cart for session: {}", items.size(), sessionId);
+        
+        // Laptops listed more than once get their quantities summed
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartBatchItem item : items) {
+            if (item.getLaptopId() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Each line needs a laptop ID and a positive quantity");
+            }
+            quantities.merge(item.getLaptopId(), item.getQuantity(), Math::addExact);
+        }
+        
+        Map<Long, Laptop> laptops = laptopRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Laptop::getId, Function.identity()));
+        if (laptops.size() != quantities.size()) {
+            TreeSet<Long> missing = new TreeSet<>(quantities.keySet());
+            missing.removeAll(laptops.keySet());
+            throw new IllegalArgumentException("Laptops not found: " + missing);
+        }
+        
+        sessionLocks.lockForTransaction(sessionId);
+        int added = quantities.values().stream().mapToInt(Integer::intValue).sum();
+        if (sessionCartStore != null) {
+            quantities.forEach((laptopId, quantity) ->
+                    sessionCartStore.add(sessionId, laptopId, laptops.get(laptopId).getPriceCents(), quantity));
+            return added;
         }
         
-        cartRepository.save(cart);
+        Long cartId = timedLookup("cartId", () -> cartRepository.findIdBySessionId(sessionId))
+                .orElseGet(() -> cartRepository.save(new Cart(sessionId)).getId());
+        cartItemWriter.upsertQuantities(cartId, quantities);
+        cartRepository.refreshTotals(sessionId);
+        logger.info("Added {} laptops in {} lines to cart {}", added, quantities.size(), cartId);
+        return added;
     }
     
     /**
      * Remove a laptop from the cart
      */
     public void removeFromCart(String sessionId, Laptop laptop) {
-        logger.info("Removing laptop {} from cart for session: {}", laptop.getId(), sessionId);
+        removeFromCart(sessionId, laptop.getId());
+    }
+    
+    /**
+     * Remove a laptop from the cart by ID; false if it was not in the cart
+     */
+    public boolean removeFromCart(String sessionId, Long laptopId) {
+        logger.info("Removing laptop {} from cart for session: {}", laptopId, sessionId);
         
-        Optional<Cart> cartOpt = cartRepository.findBySessionIdWithItems(sessionId);
-        if (cartOpt.isEmpty()) {
-            logger.warn("No cart found for session: {}", sessionId);
-            return;
+        sessionLocks.lockForTransaction(sessionId);
+        boolean removed;
+        if (sessionCartStore != null) {
+            removed = sessionCartStore.remove(sessionId, laptopId);
+        } else {
+            removed = cartItemRepository.deleteBySessionIdAndLaptopId(sessionId, laptopId) > 0;
+            if (removed) {
+                cartRepository.refreshTotals(sessionId);
+            }
         }
         
-        Cart cart = cartOpt.get();
-        Optional<CartItem> itemOpt = cartItemRepository.findByCartAndLaptop(cart, laptop);
-        
-        if (itemOpt.isPresent()) {
-            CartItem item = itemOpt.get();
-            cart.removeItem(item);
-            cartItemRepository.delete(item);
-            cartRepository.save(cart);
-            logger.info("Removed laptop {} from cart", laptop.getId());
+        if (removed) {
+            logger.info("Removed laptop {} from cart", laptopId);
         } else {
-            logger.warn("Laptop {} not found in cart for session: {}", laptop.getId(), sessionId);
+            logger.warn("Laptop {} not found in cart for session: {}", laptopId, sessionId);
         }
+        return removed;
     }
     
     /**
      * Update quantity of a laptop in the cart
      */
     public void updateQuantity(String sessionId, Laptop laptop, int quantity) {
+        updateQuantity(sessionId, laptop.getId(), quantity);
+    }
+    
+    /**
+     * Update quantity of a laptop in the cart by ID, removing it for a
+     * quantity of 0 or less; false if it was not in the cart
+     */
+    public boolean updateQuantity(String sessionId, Long laptopId, int quantity) {
         logger.info("Updating quantity for laptop {} in cart for session: {}, new quantity: {}", 
-                   laptop.getId(), sessionId, quantity);
+                   laptopId, sessionId, quantity);
         
         if (quantity <= 0) {
-            removeFromCart(sessionId, laptop);
-            return;
+            return removeFromCart(sessionId, laptopId);
         }
         
-        Optional<Cart> cartOpt = cartRepository.findBySessionIdWithItems(sessionId);
-        if (cartOpt.isEmpty()) {
-            logger.warn("No cart found for session: {}", sessionId);
-            return;
+        sessionLocks.lockForTransaction(sessionId);
+        boolean updated;
+        if (sessionCartStore != null) {
+            updated = sessionCartStore.update(sessionId, laptopId, quantity);
+        } else {
+            updated = cartItemRepository.updateQuantity(sessionId, laptopId, quantity) > 0;
+            if (updated) {
+                cartRepository.refreshTotals(sessionId);
+            }
         }
         
-        Cart cart = cartOpt.get();
-        Optional<CartItem> itemOpt = cartItemRepository.findByCartAndLaptop(cart, laptop);
-        
-        if (itemOpt.isPresent()) {
-            CartItem item = itemOpt.get();
-            item.setQuantity(quantity);
-            cartItemRepository.save(item);
-            cartRepository.save(cart);
-            logger.info("Updated quantity for laptop {} to {}", laptop.getId(), quantity);
+        if (updated) {
+            logger.info("Updated quantity for laptop {} to {}", laptopId, quantity);
         } else {
-            logger.warn("Laptop {} not found in cart for session: {}", laptop.getId(), sessionId);
+            logger.warn("Laptop {} not found in cart for session: {}", laptopId, sessionId);
         }
+        return updated;
     }
     
     /**
@@ -136,7 +228,11 @@ public class CartService {
      */
     public Optional<Cart> getCartBySessionId(String sessionId) {
         logger.info("Getting cart for session: {}", sessionId);
-        return cartRepository.findBySessionIdWithItems(sessionId);
+        if (sessionCartStore != null) {
+            // Viewing the cart (and checking out from it) works on the stored cart
+            sessionCartStore.flush(sessionId);
+        }
+        return timedLookup("cartWithItems", () -> cartRepository.findBySessionIdWithItems(sessionId));
     }
     
     /**
@@ -145,23 +241,96 @@ public class CartService {
     public void clearCart(String sessionId) {
         logger.info("Clearing cart for session: {}", sessionId);
         
-        Optional<Cart> cartOpt = cartRepository.findBySessionIdWithItems(sessionId);
-        if (cartOpt.isPresent()) {
-            Cart cart = cartOpt.get();
-            cartItemRepository.deleteByCart(cart);
-            cart.getItems().clear();
-            cartRepository.save(cart);
-            logger.info("Cleared all items from cart for session: {}", sessionId);
+        sessionLocks.lockForTransaction(sessionId);
+        if (sessionCartStore != null) {
+            sessionCartStore.clear(sessionId);
+            return;
+        }
+        
+        int removed = cartItemRepository.deleteBySessionId(sessionId);
+        cartRepository.refreshTotals(sessionId);
+        logger.info("Cleared {} items from cart for session: {}", removed, sessionId);
+    }
+    
+    /**
+     * Hand the cart of a session that just logged in over to the user's new
+     * session. The session cart is merged into the user's persistent cart
+     * (summing quantities of laptops in both) with set-based statements, so
+     * the cost does not depend on the number of lines.
+     */
+    public void mergeCartOnLogin(String oldSessionId, String newSessionId, String username) {
+        logger.info("Merging cart of session {} into cart of user {} (new session {})",
+                   oldSessionId, username, newSessionId);
+        
+        // Always lock in the same order so two merges cannot deadlock
+        sessionLocks.lockForTransaction(oldSessionId.compareTo(newSessionId) < 0 ? oldSessionId : newSessionId);
+        sessionLocks.lockForTransaction(oldSessionId.compareTo(newSessionId) < 0 ? newSessionId : oldSessionId);
+        if (sessionCartStore != null) {
+            sessionCartStore.flush(oldSessionId);
+            sessionCartStore.discard(oldSessionId);
+        }
+        
+        Optional<Long> userId = userRepository.findIdByUsername(username);
+        if (userId.isEmpty()) {
+            // Every login is loaded from the users table (the admin included),
+            // so this only happens if the row went away since; keep the cart
+            // as a plain session cart
+            cartRepository.findIdBySessionId(oldSessionId)
+                    .ifPresent(cartId -> cartRepository.reassign(cartId, newSessionId, null));
+            return;
+        }
+        
+        Optional<Long> sessionCartId = cartRepository.findIdBySessionId(oldSessionId);
+        Optional<Long> userCartId = cartRepository.findIdByUserId(userId.get());
+        
+        if (userCartId.isEmpty()) {
+            sessionCartId.ifPresent(cartId -> cartRepository.reassign(cartId, newSessionId, userId.get()));
         } else {
-            logger.warn("No cart found for session: {}", sessionId);
+            if (sessionCartId.isPresent() && !sessionCartId.equals(userCartId)) {
+                int merged = cartItemWriter.mergeCartLines(sessionCartId.get(), userCartId.get());
+                cartItemRepository.deleteByCartId(sessionCartId.get());
+                cartRepository.deleteCart(sessionCartId.get());
+                logger.debug("Merged {} lines into cart {}", merged, userCartId.get());
+            }
+            cartRepository.reassign(userCartId.get(), newSessionId, userId.get());
         }
+        cartRepository.refreshTotals(newSessionId);
     }
     
     /**
-     * Get total items count in cart
+     * Get total items count in cart, read from the stored cart summary
      */
+    @Transactional(readOnly = true)
     public int getCartItemCount(String sessionId) {
-        Optional<Cart> cartOpt = cartRepository.findBySessionIdWithItems(sessionId);
-        return cartOpt.map(Cart::getTotalItems).orElse(0);
+        return getCartTotals(sessionId).totalItems();
+    }
+    
+    /**
+     * Item count and total price of the cart, from memory or the stored cart
+     * summary, without loading the items
+     */
+    @Transactional(readOnly = true)
+    public CartTotals getCartTotals(String sessionId) {
+        if (sessionCartStore != null) {
+            CartTotals totals = sessionCartStore.totals(sessionId);
+            if (totals != null) {
+                return totals;
+            }
+        }
+        return timedLookup("cartSummary", () -> cartRepository.findSummaryBySessionId(sessionId))
+                .map(summary -> new CartTotals(summary.getTotalItems(), summary.getTotalPriceCents()))
+                .orElse(CartTotals.EMPTY);
+    }
+    
+    /**
+     * Run a cart lookup by session ID, timing it as laptopstore.cart.lookup
+     * tagged with the kind of query
+     */
+    private <T> T timedLookup(String query, Supplier<T> lookup) {
+        return Timer.builder("laptopstore.cart.lookup")
+                .description("Cart lookups by session ID")
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(lookup);
     }
 }
@@ -0,0 +1,41 @@
+package com.wiley.laptopstore.service;
+
+import com.wiley.laptopstore.cart.CartTotals;
+import com.wiley.laptopstore.entity.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * JSON body of the cart API: the cart totals after an action plus a message
+ * for the user. Error bodies carry only the message; their totals are null.
+ */
+public class CartSummaryResult {
+    
+    private final Integer totalItems;
+    private final BigDecimal totalPrice;
+    private final String message;
+    
+    public CartSummaryResult(CartTotals totals, String message) {
+        this.totalItems = totals.totalItems();
+        this.totalPrice = Money.toBigDecimal(totals.totalPriceCents());
+        this.message = message;
+    }
+    
+    public CartSummaryResult(String message) {
+        this.totalItems = null;
+        this.totalPrice = null;
+        this.message = message;
+    }
+    
+    public Integer getTotalItems() {
+        return totalItems;
+    }
+    
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+}
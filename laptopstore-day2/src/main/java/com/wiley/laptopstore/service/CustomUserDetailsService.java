@@ -8,40 +8,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
     private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
     
     @Autowired
     private UserRepository userRepository;
     
-    @Autowired
-    private PasswordEncoder passwordEncoder;
-    
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         logger.debug("Loading user by username: {}", username);
         
-        // Check if it's the admin user (hardcoded for backwards compatibility)
-        if ("admin".equals(username)) {
-            logger.debug("Loading admin user");
-            return org.springframework.security.core.userdetails.User.builder()
-                    .username("admin")
-                    .password(passwordEncoder.encode("admin123"))
-                    .authorities("ROLE_ADMIN")
-                    .build();
-        }
-        
         // Try to find user in database
         Optional<User> userOpt = userRepository.findByUsernameOrEmail(username);
         
@@ -79,4 +67,21 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .disabled(!user.isEnabled())
                 .build();
     }
+    
+    /**
+     * Store a rehashed password after a successful login with an outdated hash
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        int updated = userRepository.updatePassword(user.getUsername(), newPassword);
+        if (updated == 0) {
+            logger.warn("Could not upgrade password hash, user not found: {}", user.getUsername());
+            return user;
+        }
+        logger.info("Upgraded password hash for user: {}", user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
@@ -0,0 +1,40 @@
+package com.wiley.laptopstore.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of filtered laptops together with the facet counts and the
+ * selections that produced it. Facets are keyed by their request parameter.
+ */
+public class LaptopFacetResult {
+    
+    private final LaptopPage laptopPage;
+    private final Map<String, Map<String, Integer>> facetCounts;
+    private final Map<String, List<String>> selections;
+    
+    public LaptopFacetResult(LaptopPage laptopPage,
+                             Map<String, Map<String, Integer>> facetCounts,
+                             Map<String, List<String>> selections) {
+        this.laptopPage = laptopPage;
+        this.facetCounts = facetCounts;
+        this.selections = selections;
+    }
+    
+    public LaptopPage getLaptopPage() {
+        return laptopPage;
+    }
+    
+    public Map<String, Map<String, Integer>> getFacetCounts() {
+        return facetCounts;
+    }
+    
+    public Map<String, List<String>> getSelections() {
+        return selections;
+    }
+    
+    public boolean isSelected(String facet, String value) {
+        List<String> selected = selections.get(facet);
+        return selected != null && selected.contains(value);
+    }
+}
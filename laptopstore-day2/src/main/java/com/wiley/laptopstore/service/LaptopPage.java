@@ -0,0 +1,59 @@
+package com.wiley.laptopstore.service;
+
+import com.wiley.laptopstore.entity.Laptop;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One page of the catalog together with what the view needs to link to the
+ * neighbouring pages. The next-page cursor is the last laptop on the page.
+ */
+public class LaptopPage {
+    
+    private final List<Laptop> laptops;
+    private final int page;
+    private final int size;
+    private final LaptopSort sort;
+    private final boolean hasNext;
+    
+    public LaptopPage(List<Laptop> laptops, int page, int size, LaptopSort sort, boolean hasNext) {
+        this.laptops = laptops;
+        this.page = page;
+        this.size = size;
+        this.sort = sort;
+        this.hasNext = hasNext;
+    }
+    
+    public List<Laptop> getLaptops() {
+        return laptops;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public String getSort() {
+        return sort.getParam();
+    }
+    
+    public boolean hasNext() {
+        return hasNext;
+    }
+    
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+    
+    public Long getNextAfterId() {
+        return laptops.isEmpty() ? null : laptops.get(laptops.size() - 1).getId();
+    }
+    
+    public BigDecimal getNextAfterPrice() {
+        return laptops.isEmpty() ? null : laptops.get(laptops.size() - 1).getPrice();
+    }
+}
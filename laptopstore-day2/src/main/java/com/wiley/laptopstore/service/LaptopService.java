@@ -1,24 +1,81 @@
 package com.wiley.laptopstore.service;
 
+import com.wiley.laptopstore.catalog.CatalogVersion;
+import com.wiley.laptopstore.catalog.LaptopFacetIndex;
+import com.wiley.laptopstore.catalog.LaptopFullTextSearch;
+import com.wiley.laptopstore.catalog.LaptopPriceIndex;
+import com.wiley.laptopstore.catalog.LaptopSearchIndex;
+import com.wiley.laptopstore.catalog.LaptopSuggestionTrie;
+import com.wiley.laptopstore.config.CacheConfig;
 import com.wiley.laptopstore.entity.Laptop;
+import com.wiley.laptopstore.repository.CartRepository;
 import com.wiley.laptopstore.repository.LaptopRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class LaptopService {
     
     private static final Logger logger = LoggerFactory.getLogger(LaptopService.class);
     
+    public static final int DEFAULT_PAGE_SIZE = 12;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_SUGGESTIONS = 20;
+    
     @Autowired
     private LaptopRepository laptopRepository;
     
+    @Autowired
+    private CartRepository cartRepository;
+    
+    @Autowired
+    private LaptopSearchIndex searchIndex;
+    
+    @Autowired
+    private LaptopFullTextSearch fullTextSearch;
+    
+    @Autowired
+    private LaptopSuggestionTrie suggestionTrie;
+    
+    @Autowired
+    private LaptopFacetIndex facetIndex;
+    
+    @Autowired
+    private LaptopPriceIndex priceIndex;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    /**
+     * Get all laptops. Cached under the catalog version like the pages, so a
+     * read racing a write can never cache the old list under the new version.
+     */
+    @Cacheable(cacheNames = CacheConfig.LAPTOP_PAGES, key = "{@catalogVersion.get(), 'all'}")
     public List<Laptop> getAllLaptops() {
         logger.debug("Retrieving all laptops from database");
         try {
@@ -31,6 +88,184 @@ public class LaptopService {
         }
     }
     
+    /**
+     * Get one page of the catalog from the database.
+     * When a cursor (afterId, plus afterPrice for price orderings) is given the
+     * page is read with a keyset (seek) query, so deep pages cost the same as
+     * the first one; otherwise the page number is used as an offset.
+     * Cached pages are keyed by the catalog version, so a read racing a write
+     * can never cache the old page under the new version.
+     */
+    @Cacheable(cacheNames = CacheConfig.LAPTOP_PAGES, key = "{@catalogVersion.get(), #page, #size, #sortParam, #afterId, #afterPrice}")
+    public LaptopPage getLaptopPage(int page, int size, String sortParam, Long afterId, BigDecimal afterPrice) {
+        LaptopSort sort = LaptopSort.fromParam(sortParam);
+        int pageSize = clampPageSize(size);
+        int pageNumber = Math.max(page, 0);
+        logger.debug("Retrieving laptop page {} (size {}, sort {}, afterId {}, afterPrice {})", 
+                    pageNumber, pageSize, sort, afterId, afterPrice);
+        try {
+            LaptopPage laptopPage;
+            boolean keyset = afterId != null && (sort == LaptopSort.ID || afterPrice != null);
+            if (keyset) {
+                // Fetch one extra row to find out whether there is a next page
+                PageRequest limit = PageRequest.of(0, pageSize + 1);
+                List<Laptop> rows = switch (sort) {
+                    case ID -> laptopRepository.findPageAfterId(afterId, limit);
+                    case PRICE -> laptopRepository.findPageAfterPrice(afterPrice, afterId, limit);
+                    case PRICE_DESC -> laptopRepository.findPageBeforePrice(afterPrice, afterId, limit);
+                };
+                boolean hasNext = rows.size() > pageSize;
+                List<Laptop> laptops = hasNext ? rows.subList(0, pageSize) : rows;
+                laptopPage = new LaptopPage(laptops, pageNumber, pageSize, sort, hasNext);
+            } else {
+                Slice<Laptop> slice = laptopRepository.findAllBy(PageRequest.of(pageNumber, pageSize, sort.getSort()));
+                laptopPage = new LaptopPage(slice.getContent(), pageNumber, pageSize, sort, slice.hasNext());
+            }
+            logger.info("Retrieved {} laptops for page {} ({} mode)", 
+                       laptopPage.getLaptops().size(), pageNumber, keyset ? "keyset" : "offset");
+            return laptopPage;
+        } catch (Exception e) {
+            logger.error("Error retrieving laptop page {}: {}", pageNumber, e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Search the catalog and return one page of the ordered results.
+     * An empty query pages through the whole catalog in the database.
+     */
+    public LaptopPage searchLaptops(String query, int page, int size, String sortParam) {
+        if (query == null || query.trim().isEmpty()) {
+            return getLaptopPage(page, size, sortParam, null, null);
+        }
+        
+        LaptopSort sort = LaptopSort.fromParam(sortParam);
+        int pageSize = clampPageSize(size);
+        int pageNumber = Math.max(page, 0);
+        
+        List<Laptop> results = new java.util.ArrayList<>(searchLaptops(query));
+        results.sort(sort.getComparator());
+        
+        int from = (int) Math.min((long) pageNumber * pageSize, results.size());
+        int to = Math.min(from + pageSize, results.size());
+        return new LaptopPage(List.copyOf(results.subList(from, to)), pageNumber, pageSize, sort, to < results.size());
+    }
+    
+    /**
+     * Full-text search in the database, ranked by relevance. Falls back to the
+     * in-memory index when the database has no full-text support.
+     */
+    public LaptopPage fullTextSearchLaptops(String query, int page, int size) {
+        int pageSize = clampPageSize(size);
+        int pageNumber = Math.max(page, 0);
+        if (!fullTextSearch.isAvailable()) {
+            logger.warn("Full-text search unavailable, using in-memory index for query: {}", query);
+            return searchLaptops(query, pageNumber, pageSize, LaptopSort.ID.getParam());
+        }
+        
+        logger.debug("Full-text searching laptops with query: {}", query);
+        try {
+            // Fetch one extra hit to find out whether there is a next page
+            List<Laptop> hits = fullTextSearch.search(query, pageSize + 1, pageNumber * pageSize);
+            boolean hasNext = hits.size() > pageSize;
+            List<Laptop> laptops = hasNext ? hits.subList(0, pageSize) : hits;
+            logger.info("Full-text search for '{}' returned {} laptops on page {}", query, laptops.size(), pageNumber);
+            return new LaptopPage(laptops, pageNumber, pageSize, LaptopSort.ID, hasNext);
+        } catch (Exception e) {
+            logger.error("Error in full-text search with query '{}': {}", query, e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    /**
+     * One page of laptops priced between min and max (inclusive, either may be
+     * null), sorted by price. The page is cut from a lazily streamed view of the
+     * in-memory price index, so only the rows up to the page end are visited.
+     */
+    public LaptopPage getLaptopsByPriceRange(BigDecimal min, BigDecimal max, int page, int size, String sortParam) {
+        LaptopSort sort = LaptopSort.fromParam(sortParam) == LaptopSort.PRICE_DESC ? LaptopSort.PRICE_DESC : LaptopSort.PRICE;
+        int pageSize = clampPageSize(size);
+        int pageNumber = Math.max(page, 0);
+        logger.debug("Retrieving laptops priced between {} and {} (page {}, sort {})", min, max, pageNumber, sort);
+        
+        // Take one extra laptop to find out whether there is a next page
+        List<Laptop> rows = streamLaptopsByPrice(min, max, sort == LaptopSort.PRICE)
+                .skip((long) pageNumber * pageSize)
+                .limit(pageSize + 1)
+                .toList();
+        boolean hasNext = rows.size() > pageSize;
+        List<Laptop> laptops = hasNext ? rows.subList(0, pageSize) : rows;
+        logger.info("Price range {} - {} returned {} laptops on page {}", min, max, laptops.size(), pageNumber);
+        return new LaptopPage(laptops, pageNumber, pageSize, sort, hasNext);
+    }
+    
+    /**
+     * Laptops priced between min and max in price order, without copying the catalog
+     */
+    public Stream<Laptop> streamLaptopsByPrice(BigDecimal min, BigDecimal max, boolean ascending) {
+        return priceIndex.streamByPrice(min, max, ascending);
+    }
+    
+    /**
+     * Typeahead suggestions for a search prefix, served from memory
+     */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> suggestions = suggestionTrie.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+        logger.debug("Suggestions for '{}': {}", prefix, suggestions);
+        return suggestions;
+    }
+    
+    /**
+     * Filter the catalog by facet selections (keyed by facet parameter, e.g.
+     * "brand" -> ["Dell", "HP"]) and return one page of matches together with
+     * the per-facet counts. Everything is answered from the in-memory bitsets.
+     */
+    public LaptopFacetResult filterLaptops(Map<String, List<String>> selections, int page, int size, String sortParam) {
+        logger.debug("Filtering laptops with facets: {}", selections);
+        LaptopSort sort = LaptopSort.fromParam(sortParam);
+        int pageSize = clampPageSize(size);
+        int pageNumber = Math.max(page, 0);
+        
+        Map<LaptopFacetIndex.Facet, Set<String>> facetSelections = new EnumMap<>(LaptopFacetIndex.Facet.class);
+        for (LaptopFacetIndex.Facet facet : LaptopFacetIndex.Facet.values()) {
+            List<String> values = selections.get(facet.getParam());
+            if (values != null && !values.isEmpty()) {
+                facetSelections.put(facet, new HashSet<>(values));
+            }
+        }
+        
+        LaptopFacetIndex.FacetResult result = facetIndex.filter(facetSelections);
+        List<Laptop> matches = facetIndex.laptopsFor(result.getMatches());
+        if (sort != LaptopSort.ID) {
+            matches.sort(sort.getComparator());
+        }
+        
+        int from = (int) Math.min((long) pageNumber * pageSize, matches.size());
+        int to = Math.min(from + pageSize, matches.size());
+        LaptopPage laptopPage = new LaptopPage(List.copyOf(matches.subList(from, to)), pageNumber, pageSize, sort,
+                to < matches.size());
+        
+        Map<String, Map<String, Integer>> facetCounts = new LinkedHashMap<>();
+        result.getCounts().forEach((facet, counts) -> facetCounts.put(facet.getParam(), counts));
+        
+        logger.info("Facet filter {} matched {} laptops", selections, matches.size());
+        return new LaptopFacetResult(laptopPage, facetCounts, selections);
+    }
+    
+    /**
+     * Facet counts for the unfiltered catalog
+     */
+    public LaptopFacetResult getFacetCounts() {
+        return filterLaptops(Map.of(), 0, DEFAULT_PAGE_SIZE, LaptopSort.ID.getParam());
+    }
+    
+    private int clampPageSize(int size) {
+        if (size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+    
     public List<Laptop> searchLaptops(String query) {
         logger.debug("Searching laptops with query: {}", query);
         try {
@@ -39,18 +274,7 @@ public class LaptopService {
                 return getAllLaptops();
             }
             
-            String searchTerm = query.trim().toLowerCase();
-            List<Laptop> allLaptops = laptopRepository.findAll();
-            
-            List<Laptop> searchResults = allLaptops.stream()
-                .filter(laptop -> 
-                    laptop.getName().toLowerCase().contains(searchTerm) ||
-                    laptop.getBrand().toLowerCase().contains(searchTerm) ||
-                    laptop.getCategory().toLowerCase().contains(searchTerm) ||
-                    laptop.getProcessor().toLowerCase().contains(searchTerm) ||
-                    (laptop.getInfo() != null && laptop.getInfo().toLowerCase().contains(searchTerm))
-                )
-                .collect(java.util.stream.Collectors.toList());
+            List<Laptop> searchResults = searchIndex.search(query);
             
             logger.info("Search for '{}' returned {} laptops", query, searchResults.size());
             return searchResults;
@@ -60,6 +284,7 @@ public class LaptopService {
         }
     }
     
+    @Cacheable(cacheNames = CacheConfig.LAPTOPS, key = "#id", unless = "#result == null")
     public Optional<Laptop> findById(Long id) {
         logger.debug("Finding laptop with ID: {}", id);
         try {
@@ -76,6 +301,7 @@ public class LaptopService {
         }
     }
     
+    @Cacheable(cacheNames = CacheConfig.LAPTOPS, key = "#id", unless = "#result == null")
     public Laptop getLaptopById(Long id) {
         logger.debug("Retrieving laptop with ID: {}", id);
         try {
@@ -93,8 +319,17 @@ public class LaptopService {
         }
     }
     
+    /**
+     * Save a laptop and refresh the stored totals of carts holding it, in one
+     * transaction. The in-memory indexes, the caches and the catalog version
+     * are only updated once that transaction has committed, so a concurrent
+     * reader never sees the new version with the old rows, and a rollback
+     * leaves them untouched.
+     */
+    @Transactional
     public Laptop saveLaptop(Laptop laptop) {
-        if (laptop.getId() == null) {
+        boolean existing = laptop.getId() != null;
+        if (!existing) {
             logger.info("Creating new laptop: {}", laptop.getName());
             logger.debug("New laptop details - Brand: {}, Category: {}, Price: {}", 
                         laptop.getBrand(), laptop.getCategory(), laptop.getPrice());
@@ -104,7 +339,19 @@ public class LaptopService {
         
         try {
             Laptop savedLaptop = laptopRepository.save(laptop);
-            if (laptop.getId() == null) {
+            if (existing) {
+                // The price may have changed; carts holding the laptop store its old total
+                laptopRepository.flush();
+                int carts = cartRepository.refreshTotalsForLaptop(savedLaptop.getId());
+                logger.debug("Refreshed totals of {} carts holding laptop {}", carts, savedLaptop.getId());
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    laptopSaved(savedLaptop);
+                }
+            });
+            if (!existing) {
                 logger.info("Successfully created laptop with ID: {} - {}", savedLaptop.getId(), savedLaptop.getName());
             } else {
                 logger.info("Successfully updated laptop with ID: {} - {}", savedLaptop.getId(), savedLaptop.getName());
@@ -116,6 +363,11 @@ public class LaptopService {
         }
     }
     
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.LAPTOPS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.LAPTOP_PAGES, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.LAPTOP_GRID, allEntries = true)
+    })
     public void deleteLaptop(Long id) {
         logger.info("Attempting to delete laptop with ID: {}", id);
         try {
@@ -123,6 +375,11 @@ public class LaptopService {
             if (laptop.isPresent()) {
                 String laptopName = laptop.get().getName();
                 laptopRepository.deleteById(id);
+                searchIndex.remove(id);
+                suggestionTrie.remove(id);
+                facetIndex.remove(id);
+                priceIndex.remove(id);
+                catalogVersion.increment();
                 logger.info("Successfully deleted laptop: {} (ID: {})", laptopName, id);
             } else {
                 logger.warn("Attempted to delete non-existent laptop with ID: {}", id);
@@ -133,6 +390,30 @@ public class LaptopService {
         }
     }
     
+    /**
+     * Bring the indexes and caches up to date with a committed save, then
+     * bump the catalog version last so version-keyed entries are rebuilt from
+     * the committed rows
+     */
+    private void laptopSaved(Laptop savedLaptop) {
+        searchIndex.index(savedLaptop);
+        suggestionTrie.index(savedLaptop);
+        facetIndex.index(savedLaptop);
+        priceIndex.index(savedLaptop);
+        Cache laptops = cacheManager.getCache(CacheConfig.LAPTOPS);
+        if (laptops != null) {
+            laptops.put(savedLaptop.getId(), savedLaptop);
+        }
+        // Version-keyed, but cleared too rather than left to expire
+        for (String cacheName : List.of(CacheConfig.LAPTOP_PAGES, CacheConfig.LAPTOP_GRID)) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        catalogVersion.increment();
+    }
+    
     @PostConstruct
     public void initData() {
         logger.info("Initializing sample laptop data");
@@ -197,5 +478,23 @@ public class LaptopService {
         } else {
             logger.info("Sample data already exists, skipping initialization. Total laptops: {}", laptopRepository.count());
         }
+        
+        rebuildIndexes();
+    }
+    
+    /**
+     * Load the catalog once and rebuild the in-memory search structures from it
+     */
+    public void rebuildIndexes() {
+        logger.info("Rebuilding in-memory laptop indexes");
+        try {
+            List<Laptop> laptops = laptopRepository.findAll();
+            searchIndex.rebuild(laptops);
+            suggestionTrie.rebuild(laptops);
+            facetIndex.rebuild(laptops);
+            priceIndex.rebuild(laptops);
+        } catch (Exception e) {
+            logger.error("Error rebuilding in-memory laptop indexes: {}", e.getMessage(), e);
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.wiley.laptopstore.service;
+
+import com.wiley.laptopstore.entity.Laptop;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+
+/**
+ * Supported catalog orderings. Every ordering ends with the ID so that it is
+ * total, which is what keyset pagination relies on.
+ */
+public enum LaptopSort {
+    
+    ID("id", Sort.by(Sort.Direction.ASC, "id"),
+            Comparator.comparing(Laptop::getId)),
+    PRICE("price", Sort.by(Sort.Direction.ASC, "price", "id"),
+            Comparator.comparingLong(Laptop::getPriceCents).thenComparing(Laptop::getId)),
+    PRICE_DESC("price-desc", Sort.by(Sort.Direction.DESC, "price", "id"),
+            Comparator.comparingLong(Laptop::getPriceCents).thenComparing(Laptop::getId).reversed());
+    
+    private final String param;
+    private final Sort sort;
+    private final Comparator<Laptop> comparator;
+    
+    LaptopSort(String param, Sort sort, Comparator<Laptop> comparator) {
+        this.param = param;
+        this.sort = sort;
+        this.comparator = comparator;
+    }
+    
+    public String getParam() {
+        return param;
+    }
+    
+    public Sort getSort() {
+        return sort;
+    }
+    
+    public Comparator<Laptop> getComparator() {
+        return comparator;
+    }
+    
+    /**
+     * Resolve a request parameter, falling back to ID order for unknown values
+     */
+    public static LaptopSort fromParam(String param) {
+        if (param != null) {
+            for (LaptopSort value : values()) {
+                if (value.param.equalsIgnoreCase(param.trim())) {
+                    return value;
+                }
+            }
+        }
+        return ID;
+    }
+}
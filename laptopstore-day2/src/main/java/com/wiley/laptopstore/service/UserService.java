@@ -4,7 +4,9 @@ import com.wiley.laptopstore.entity.User;
 import com.wiley.laptopstore.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +26,53 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Value("${laptopstore.admin.username:admin}")
+    private String adminUsername;
+    
+    @Value("${laptopstore.admin.email:admin@laptopstore.local}")
+    private String adminEmail;
+    
+    // An already encoded password (e.g. from a secret store); wins over admin.password
+    @Value("${laptopstore.admin.password-hash:}")
+    private String adminPasswordHash;
+    
+    @Value("${laptopstore.admin.password:}")
+    private String adminPassword;
+    
+    /**
+     * Create the admin account on startup if it does not exist yet. The
+     * password is encoded here once (or taken pre-encoded from configuration),
+     * so admin logins are verified like any other user's.
+     */
+    @PostConstruct
+    public void provisionAdmin() {
+        if (userRepository.existsByUsername(adminUsername)) {
+            logger.info("Admin account {} already exists", adminUsername);
+            return;
+        }
+        
+        String encodedPassword;
+        if (!adminPasswordHash.isBlank()) {
+            encodedPassword = adminPasswordHash;
+        } else if (!adminPassword.isBlank()) {
+            encodedPassword = passwordEncoder.encode(adminPassword);
+        } else {
+            logger.warn("No LAPTOPSTORE_ADMIN_PASSWORD or laptopstore.admin.password-hash configured, "
+                       + "admin account {} not created", adminUsername);
+            return;
+        }
+        
+        try {
+            User admin = new User(adminUsername, adminEmail, encodedPassword);
+            admin.setRoles(Set.of(User.Role.ADMIN));
+            admin.setEnabled(true);
+            userRepository.save(admin);
+            logger.info("Provisioned admin account {}", adminUsername);
+        } catch (Exception e) {
+            logger.error("Error provisioning admin account {}: {}", adminUsername, e.getMessage(), e);
+        }
+    }
+    
     /**
      * Register a new user
      */
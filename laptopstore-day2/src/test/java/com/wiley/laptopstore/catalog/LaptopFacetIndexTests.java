@@ -0,0 +1,127 @@
+package com.wiley.laptopstore.catalog;
+
+import com.wiley.laptopstore.catalog.LaptopFacetIndex.Facet;
+import com.wiley.laptopstore.catalog.LaptopFacetIndex.FacetResult;
+import com.wiley.laptopstore.entity.Laptop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LaptopFacetIndexTests {
+
+	private final LaptopFacetIndex index = new LaptopFacetIndex();
+
+	private Laptop xps;
+	private Laptop inspiron;
+	private Laptop macBook;
+	private Laptop thinkPad;
+
+	@BeforeEach
+	void setUp() {
+		xps = laptop(1L, "Dell", "Ultrabook", "Intel", "1799.00");
+		inspiron = laptop(2L, "Dell", "Budget", "AMD", "649.00");
+		macBook = laptop(3L, "Apple", "Ultrabook", "Apple M3", "1299.00");
+		thinkPad = laptop(4L, "Lenovo", "Business", "Intel", "1249.00");
+		index.rebuild(List.of(xps, inspiron, macBook, thinkPad));
+	}
+
+	@Test
+	void filterOrsValuesWithinAFacetAndAndsAcrossFacets() {
+		FacetResult result = index.filter(Map.of(
+				Facet.BRAND, Set.of("Dell", "Lenovo"),
+				Facet.PROCESSOR, Set.of("Intel")));
+
+		assertThat(index.laptopsFor(result.getMatches())).containsExactly(xps, thinkPad);
+	}
+
+	@Test
+	void filterWithoutSelectionsMatchesEverythingInIdOrder() {
+		FacetResult result = index.filter(Map.of());
+
+		assertThat(index.laptopsFor(result.getMatches())).containsExactly(xps, inspiron, macBook, thinkPad);
+		assertThat(result.getCounts().get(Facet.BRAND))
+				.containsExactly(Map.entry("Apple", 1), Map.entry("Dell", 2), Map.entry("Lenovo", 1));
+		assertThat(result.getCounts().get(Facet.PRICE)).containsExactly(
+				Map.entry("under-1000", 1), Map.entry("1000-1500", 2), Map.entry("1500-2000", 1));
+	}
+
+	@Test
+	void countsIgnoreTheFacetsOwnSelection() {
+		FacetResult result = index.filter(Map.of(
+				Facet.BRAND, Set.of("Dell"),
+				Facet.CATEGORY, Set.of("Ultrabook")));
+
+		assertThat(index.laptopsFor(result.getMatches())).containsExactly(xps);
+		// Brands are counted against the category selection only
+		assertThat(result.getCounts().get(Facet.BRAND))
+				.containsExactly(Map.entry("Apple", 1), Map.entry("Dell", 1), Map.entry("Lenovo", 0));
+		// and categories against the brand selection only
+		assertThat(result.getCounts().get(Facet.CATEGORY))
+				.containsExactly(Map.entry("Budget", 1), Map.entry("Business", 0), Map.entry("Ultrabook", 1));
+	}
+
+	@Test
+	void unknownSelectedValueMatchesNothing() {
+		FacetResult result = index.filter(Map.of(Facet.BRAND, Set.of("Acer")));
+
+		assertThat(result.getMatches().isEmpty()).isTrue();
+	}
+
+	@Test
+	void reindexingMovesTheLaptopToItsNewBrandAndPriceBand() {
+		// Edited in place, as an entity would be before it is saved again
+		thinkPad.setBrand("Apple");
+		thinkPad.setPrice(new BigDecimal("2199.00"));
+		index.index(thinkPad);
+
+		FacetResult result = index.filter(Map.of());
+		assertThat(result.getCounts().get(Facet.BRAND))
+				.containsExactly(Map.entry("Apple", 2), Map.entry("Dell", 2));
+		assertThat(result.getCounts().get(Facet.PRICE)).containsExactly(
+				Map.entry("under-1000", 1), Map.entry("1000-1500", 1),
+				Map.entry("1500-2000", 1), Map.entry("2000-plus", 1));
+		assertThat(index.laptopsFor(index.filter(Map.of(Facet.PRICE, Set.of("2000-plus"))).getMatches()))
+				.containsExactly(thinkPad);
+	}
+
+	@Test
+	void reindexingWithANewInstanceReplacesTheOldValues() {
+		Laptop edited = laptop(2L, "Dell", "Gaming", "AMD", "649.00");
+		index.index(edited);
+
+		FacetResult result = index.filter(Map.of(Facet.CATEGORY, Set.of("Budget")));
+		assertThat(result.getMatches().isEmpty()).isTrue();
+		assertThat(result.getCounts().get(Facet.CATEGORY)).doesNotContainKey("Budget").containsEntry("Gaming", 1);
+		assertThat(index.laptopsFor(index.filter(Map.of()).getMatches())).contains(edited).doesNotContain(inspiron);
+	}
+
+	@Test
+	void removeDropsTheLaptopFromMatchesAndCounts() {
+		index.remove(3L);
+
+		FacetResult result = index.filter(Map.of(Facet.CATEGORY, Set.of("Ultrabook")));
+		assertThat(index.laptopsFor(result.getMatches())).containsExactly(xps);
+		assertThat(result.getCounts().get(Facet.BRAND))
+				.containsExactly(Map.entry("Dell", 1), Map.entry("Lenovo", 0));
+		assertThat(result.getCounts().get(Facet.PROCESSOR)).doesNotContainKey("Apple M3");
+	}
+
+	@Test
+	void removingAnUnknownIdIsANoOp() {
+		index.remove(99L);
+
+		assertThat(index.filter(Map.of()).getMatches().cardinality()).isEqualTo(4);
+	}
+
+	private static Laptop laptop(Long id, String brand, String category, String processor, String price) {
+		Laptop laptop = new Laptop(brand + " " + id, brand, category, new BigDecimal(price), null, processor, null);
+		laptop.setId(id);
+		return laptop;
+	}
+}
@@ -0,0 +1,77 @@
+package com.wiley.laptopstore.catalog;
+
+import com.wiley.laptopstore.entity.Laptop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LaptopPriceIndexTests {
+
+	private final LaptopPriceIndex index = new LaptopPriceIndex();
+
+	@BeforeEach
+	void setUp() {
+		index.rebuild(List.of(
+				laptop(1L, "999.99"),
+				laptop(2L, "1000.00"),
+				laptop(3L, "1500.00"),
+				laptop(4L, "1000.00"),
+				laptop(5L, "2499.00")));
+	}
+
+	@Test
+	void boundsAreInclusive() {
+		assertThat(ids(new BigDecimal("1000.00"), new BigDecimal("1500.00"), true)).containsExactly(2L, 4L, 3L);
+	}
+
+	@Test
+	void nullBoundsAreOpen() {
+		assertThat(ids(null, new BigDecimal("1000.00"), true)).containsExactly(1L, 2L, 4L);
+		assertThat(ids(new BigDecimal("1500.00"), null, true)).containsExactly(3L, 5L);
+		assertThat(ids(null, null, true)).containsExactly(1L, 2L, 4L, 3L, 5L);
+	}
+
+	@Test
+	void boundsBetweenPricesMatchNothingOutsideThem() {
+		assertThat(ids(new BigDecimal("1000.01"), new BigDecimal("1499.99"), true)).isEmpty();
+		assertThat(ids(new BigDecimal("2000.00"), new BigDecimal("1000.00"), true)).isEmpty();
+	}
+
+	@Test
+	void descendingReversesPriceAndIdOrder() {
+		assertThat(ids(null, null, false)).containsExactly(5L, 3L, 4L, 2L, 1L);
+		assertThat(ids(new BigDecimal("1000.00"), new BigDecimal("1000.00"), false)).containsExactly(4L, 2L);
+	}
+
+	@Test
+	void repricingAnIndexedLaptopRemovesItsOldKey() {
+		Laptop laptop = laptop(2L, "1000.00");
+		laptop.setPrice(new BigDecimal("2000.00"));
+		index.index(laptop);
+
+		assertThat(ids(new BigDecimal("1000.00"), new BigDecimal("1000.00"), true)).containsExactly(4L);
+		assertThat(ids(null, null, true)).containsExactly(1L, 4L, 3L, 2L, 5L);
+	}
+
+	@Test
+	void removeDropsTheLaptop() {
+		index.remove(3L);
+		index.remove(99L);
+
+		assertThat(ids(null, null, true)).containsExactly(1L, 2L, 4L, 5L);
+	}
+
+	private List<Long> ids(BigDecimal min, BigDecimal max, boolean ascending) {
+		return index.streamByPrice(min, max, ascending).map(Laptop::getId).toList();
+	}
+
+	private static Laptop laptop(Long id, String price) {
+		Laptop laptop = new Laptop("Laptop " + id, "Brand", "Category", new BigDecimal(price), null, "CPU", null);
+		laptop.setId(id);
+		return laptop;
+	}
+}
@@ -0,0 +1,91 @@
+package com.wiley.laptopstore.catalog;
+
+import com.wiley.laptopstore.entity.Laptop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LaptopSearchIndexTests {
+
+	private final LaptopSearchIndex index = new LaptopSearchIndex();
+
+	@BeforeEach
+	void setUp() {
+		index.rebuild(List.of(
+				laptop(3L, "MacBook Air", "Apple", "Apple M3", "Thin and light"),
+				laptop(1L, "XPS 13", "Dell", "Intel Core i7", "Crème de la crème"),
+				laptop(2L, "Inspiron 15", "Dell", "AMD Ryzen 5", "Everyday notebook")));
+	}
+
+	@Test
+	void tokenizeLowerCasesStripsAccentsAndSplitsOnPunctuation() {
+		assertThat(LaptopSearchIndex.tokenize("  Crème-Brûlée, XPS/13!  ")).containsExactly("creme", "brulee", "xps", "13");
+		assertThat(LaptopSearchIndex.tokenize("Ryzen™ 5")).containsExactly("ryzen", "5");
+		assertThat(LaptopSearchIndex.tokenize(" -- ")).isEmpty();
+		assertThat(LaptopSearchIndex.tokenize(null)).isEmpty();
+	}
+
+	@Test
+	void queryTokensMatchAsPrefixesOfWholeWords() {
+		assertThat(ids("mac")).containsExactly(3L);
+		assertThat(ids("insp")).containsExactly(2L);
+		// Tokens only match from the start of a word
+		assertThat(ids("book")).isEmpty();
+		assertThat(ids("note")).containsExactly(2L);
+	}
+
+	@Test
+	void accentsAreIgnoredOnBothSides() {
+		assertThat(ids("creme")).containsExactly(1L);
+		assertThat(ids("CRÈME")).containsExactly(1L);
+	}
+
+	@Test
+	void everyQueryTokenMustMatch() {
+		assertThat(ids("dell")).containsExactly(1L, 2L);
+		assertThat(ids("dell intel")).containsExactly(1L);
+		assertThat(ids("dell apple")).isEmpty();
+		assertThat(ids("dell dell")).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void blankQueryReturnsEverythingInIdOrder() {
+		assertThat(ids("  ")).containsExactly(1L, 2L, 3L);
+		assertThat(index.size()).isEqualTo(3);
+	}
+
+	@Test
+	void reindexingReplacesTheOldTokens() {
+		index.index(laptop(2L, "Latitude 7440", "Dell", "Intel Core i5", null));
+
+		assertThat(ids("inspiron")).isEmpty();
+		assertThat(ids("ryzen")).isEmpty();
+		assertThat(ids("lat")).containsExactly(2L);
+		assertThat(ids("intel")).containsExactly(1L, 2L);
+		assertThat(index.size()).isEqualTo(3);
+	}
+
+	@Test
+	void removeDropsTheLaptop() {
+		index.remove(1L);
+		index.remove(99L);
+
+		assertThat(ids("dell")).containsExactly(2L);
+		assertThat(ids("xps")).isEmpty();
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	private List<Long> ids(String query) {
+		return index.search(query).stream().map(Laptop::getId).toList();
+	}
+
+	private static Laptop laptop(Long id, String name, String brand, String processor, String info) {
+		Laptop laptop = new Laptop(name, brand, "Category", new BigDecimal("999.00"), info, processor, null);
+		laptop.setId(id);
+		return laptop;
+	}
+}
@@ -0,0 +1,89 @@
+package com.wiley.laptopstore.catalog;
+
+import com.wiley.laptopstore.entity.Laptop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LaptopSuggestionTrieTests {
+
+	private final LaptopSuggestionTrie trie = new LaptopSuggestionTrie();
+
+	@BeforeEach
+	void setUp() {
+		trie.rebuild(List.of(
+				laptop(1L, "Dell XPS 13", "Dell", "Intel Core i7"),
+				laptop(2L, "Dell Inspiron", "Dell", "AMD Ryzen 5"),
+				laptop(3L, "Dellxtra Pro", "Acme", "Intel Core i5")));
+	}
+
+	@Test
+	void shorterCompletionsComeFirst() {
+		assertThat(trie.suggest("dell", 10))
+				.containsExactly("Dell", "Dell XPS 13", "Dellxtra Pro", "Dell Inspiron");
+	}
+
+	@Test
+	void suggestionsStopAtTheLimit() {
+		assertThat(trie.suggest("dell", 2)).containsExactly("Dell", "Dell XPS 13");
+		assertThat(trie.suggest("dell", 0)).isEmpty();
+	}
+
+	@Test
+	void phrasesAreFoundFromAnyOfTheirWords() {
+		assertThat(trie.suggest("xps", 10)).containsExactly("Dell XPS 13");
+		assertThat(trie.suggest("ryzen", 10)).containsExactly("AMD Ryzen 5");
+		assertThat(trie.suggest("core i", 10)).containsExactlyInAnyOrder("Intel Core i7", "Intel Core i5");
+	}
+
+	@Test
+	void prefixIsNormalizedLikeThePhrases() {
+		trie.index(laptop(4L, "Café Book", "Acme", "Intel Core i5"));
+
+		assertThat(trie.suggest("  DÉLL   x", 10)).containsExactly("Dell XPS 13");
+		assertThat(trie.suggest("cafe", 10)).containsExactly("Café Book");
+		assertThat(trie.suggest("  ", 10)).isEmpty();
+		assertThat(trie.suggest(null, 10)).isEmpty();
+	}
+
+	@Test
+	void removeKeepsPhrasesSharedWithOtherLaptops() {
+		trie.remove(1L);
+
+		assertThat(trie.suggest("dell", 10)).containsExactly("Dell", "Dellxtra Pro", "Dell Inspiron");
+		assertThat(trie.suggest("xps", 10)).isEmpty();
+		assertThat(trie.suggest("core i", 10)).containsExactly("Intel Core i5");
+	}
+
+	@Test
+	void removeCleansUpPrefixesNoLongerLeadingAnywhere() {
+		trie.remove(1L);
+		trie.remove(2L);
+
+		assertThat(trie.suggest("dell", 10)).containsExactly("Dellxtra Pro");
+		assertThat(trie.suggest("dell i", 10)).isEmpty();
+
+		trie.remove(3L);
+		assertThat(trie.suggest("d", 10)).isEmpty();
+		assertThat(trie.suggest("intel", 10)).isEmpty();
+	}
+
+	@Test
+	void reindexingReplacesTheOldPhrases() {
+		trie.index(laptop(2L, "Dell Latitude", "Dell", "AMD Ryzen 5"));
+
+		assertThat(trie.suggest("inspiron", 10)).isEmpty();
+		assertThat(trie.suggest("lat", 10)).containsExactly("Dell Latitude");
+		assertThat(trie.suggest("dell", 1)).containsExactly("Dell");
+	}
+
+	private static Laptop laptop(Long id, String name, String brand, String processor) {
+		Laptop laptop = new Laptop(name, brand, "Category", new BigDecimal("999.00"), null, processor, null);
+		laptop.setId(id);
+		return laptop;
+	}
+}
@@ -0,0 +1,85 @@
+package com.wiley.laptopstore.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingTests {
+
+	// Low costs keep the tests fast; calibration and upgrades work the same way
+	private static final int MIN_STRENGTH = 4;
+
+	private final UserDetailsPasswordService passwordService = mock(UserDetailsPasswordService.class);
+
+	@Test
+	void calibrationNeverGoesBelowTheMinimum() {
+		assertThat(PasswordHashing.calibrateBcryptStrength(0, MIN_STRENGTH)).isEqualTo(MIN_STRENGTH);
+	}
+
+	@Test
+	void calibrationStopsAtTheMaximumStrength() {
+		assertThat(PasswordHashing.calibrateBcryptStrength(Long.MAX_VALUE, MIN_STRENGTH)).isEqualTo(16);
+	}
+
+	@Test
+	void encodesWithThePrefixOfTheChosenAlgorithm() {
+		PasswordEncoder bcrypt = PasswordHashing.delegatingEncoder("bcrypt", MIN_STRENGTH, 1000);
+		PasswordEncoder pbkdf2 = PasswordHashing.delegatingEncoder("PBKDF2", MIN_STRENGTH, 1000);
+
+		String bcryptHash = bcrypt.encode("secret");
+		String pbkdf2Hash = pbkdf2.encode("secret");
+
+		assertThat(bcryptHash).startsWith("{bcrypt}");
+		assertThat(pbkdf2Hash).startsWith("{pbkdf2}");
+		// Either encoder still verifies the other's hashes
+		assertThat(bcrypt.matches("secret", pbkdf2Hash)).isTrue();
+		assertThat(pbkdf2.matches("secret", bcryptHash)).isTrue();
+	}
+
+	@Test
+	void unprefixedLowCostHashIsUpgradedOnLogin() {
+		String legacyHash = new BCryptPasswordEncoder(MIN_STRENGTH).encode("secret");
+		UserDetails user = User.withUsername("alice").password(legacyHash).roles("USER").build();
+		DaoAuthenticationProvider provider = provider(user, MIN_STRENGTH + 1);
+
+		provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+		verify(passwordService).updatePassword(any(UserDetails.class), startsWith("{bcrypt}$2a$05$"));
+	}
+
+	@Test
+	void currentHashIsLeftAlone() {
+		PasswordEncoder encoder = PasswordHashing.delegatingEncoder("bcrypt", MIN_STRENGTH, 1000);
+		UserDetails user = User.withUsername("alice").password(encoder.encode("secret")).roles("USER").build();
+		DaoAuthenticationProvider provider = provider(user, MIN_STRENGTH);
+
+		provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+		verify(passwordService, never()).updatePassword(any(), any());
+	}
+
+	private DaoAuthenticationProvider provider(UserDetails user, int bcryptStrength) {
+		UserDetailsService userDetailsService = mock(UserDetailsService.class);
+		when(userDetailsService.loadUserByUsername(eq(user.getUsername()))).thenReturn(user);
+		when(passwordService.updatePassword(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+		provider.setPasswordEncoder(PasswordHashing.delegatingEncoder("bcrypt", bcryptStrength, 1000));
+		provider.setUserDetailsPasswordService(passwordService);
+		return provider;
+	}
+}
@@ -0,0 +1,60 @@
+package com.wiley.laptopstore.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TimedAuthenticationProviderTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AuthenticationProvider delegate = mock(AuthenticationProvider.class);
+
+	private final TimedAuthenticationProvider provider = new TimedAuthenticationProvider(delegate, meterRegistry);
+
+	private final Authentication login = new UsernamePasswordAuthenticationToken("alice", "secret");
+
+	@Test
+	void successfulLoginIsTaggedSuccess() {
+		Authentication authenticated = new UsernamePasswordAuthenticationToken("alice", null, List.of());
+		when(delegate.authenticate(any())).thenReturn(authenticated);
+
+		assertThat(provider.authenticate(login)).isSameAs(authenticated);
+
+		assertThat(loginCount("success")).isEqualTo(1);
+	}
+
+	@Test
+	void undecidedLoginIsTaggedAbstain() {
+		when(delegate.authenticate(any())).thenReturn(null);
+
+		assertThat(provider.authenticate(login)).isNull();
+
+		assertThat(loginCount("abstain")).isEqualTo(1);
+		assertThat(meterRegistry.find("laptopstore.login").tag("outcome", "success").timer()).isNull();
+	}
+
+	@Test
+	void rejectedLoginIsTaggedFailure() {
+		when(delegate.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+		assertThatThrownBy(() -> provider.authenticate(login)).isInstanceOf(BadCredentialsException.class);
+
+		assertThat(loginCount("failure")).isEqualTo(1);
+	}
+
+	private long loginCount(String outcome) {
+		return meterRegistry.get("laptopstore.login").tag("outcome", outcome).timer().count();
+	}
+}
@@ -0,0 +1,83 @@
+package com.wiley.laptopstore.controller;
+
+import com.wiley.laptopstore.cart.CartTotals;
+import com.wiley.laptopstore.service.CartService;
+import com.wiley.laptopstore.service.LaptopService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class CartControllerApiTests {
+
+	@Mock
+	private CartService cartService;
+
+	@Mock
+	private LaptopService laptopService;
+
+	@InjectMocks
+	private CartController cartController;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.standaloneSetup(cartController).build();
+	}
+
+	@Test
+	void updatePassesTheIdThroughAndReturnsTotals() throws Exception {
+		when(cartService.updateQuantity(anyString(), eq(7L), eq(3))).thenReturn(true);
+		when(cartService.getCartTotals(anyString())).thenReturn(new CartTotals(3, 450000));
+
+		mockMvc.perform(post("/cart/api/update").param("laptopId", "7").param("quantity", "3"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalItems").value(3))
+				.andExpect(jsonPath("$.totalPrice").value(4500.0));
+
+		verifyNoInteractions(laptopService);
+	}
+
+	@Test
+	void removeOfLaptopNotInCartIsNotFound() throws Exception {
+		when(cartService.removeFromCart(anyString(), eq(7L))).thenReturn(false);
+
+		mockMvc.perform(post("/cart/api/remove").param("laptopId", "7"))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.totalItems").isEmpty())
+				.andExpect(jsonPath("$.message").value("Laptop not found in your cart!"));
+
+		verifyNoInteractions(laptopService);
+	}
+
+	@Test
+	void failedActionAnswersWithoutReadingTotalsAgain() throws Exception {
+		when(cartService.updateQuantity(anyString(), eq(7L), eq(2)))
+				.thenThrow(new QueryTimeoutException("lock timeout"));
+
+		mockMvc.perform(post("/cart/api/update").param("laptopId", "7").param("quantity", "2"))
+				.andExpect(status().isInternalServerError())
+				.andExpect(jsonPath("$.totalItems").isEmpty())
+				.andExpect(jsonPath("$.totalPrice").isEmpty())
+				.andExpect(jsonPath("$.message").value("Failed to update cart. Please try again."));
+
+		verify(cartService, never()).getCartTotals(anyString());
+	}
+}
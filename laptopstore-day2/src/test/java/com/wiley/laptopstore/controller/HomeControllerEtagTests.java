@@ -0,0 +1,72 @@
+package com.wiley.laptopstore.controller;
+
+import com.wiley.laptopstore.catalog.CatalogVersion;
+import com.wiley.laptopstore.service.CartService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class HomeControllerEtagTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CatalogVersion catalogVersion;
+
+	@MockitoBean
+	private CartService cartService;
+
+	@Test
+	void unchangedPageIsNotModified() throws Exception {
+		MockHttpSession session = new MockHttpSession();
+		String etag = mockMvc.perform(get("/").session(session))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("ETag"))
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/").session(session).header("If-None-Match", etag))
+				.andExpect(status().isNotModified());
+
+		// The cart badge is fetched by the page script, so the page needs no cart lookup
+		verifyNoInteractions(cartService);
+	}
+
+	@Test
+	void catalogChangeInvalidatesEtag() throws Exception {
+		MockHttpSession session = new MockHttpSession();
+		String etag = mockMvc.perform(get("/").session(session))
+				.andReturn().getResponse().getHeader("ETag");
+
+		catalogVersion.increment();
+
+		String newEtag = mockMvc.perform(get("/").session(session).header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		assertThat(newEtag).isNotEqualTo(etag);
+	}
+
+	@Test
+	void otherParamsAndSessionsGetTheirOwnEtag() throws Exception {
+		MockHttpSession session = new MockHttpSession();
+		String etag = mockMvc.perform(get("/").session(session))
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/").param("sort", "price").session(session).header("If-None-Match", etag))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/").session(new MockHttpSession()).header("If-None-Match", etag))
+				.andExpect(status().isOk());
+	}
+}
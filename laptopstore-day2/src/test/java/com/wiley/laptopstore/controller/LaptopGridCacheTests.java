@@ -0,0 +1,76 @@
+package com.wiley.laptopstore.controller;
+
+import com.wiley.laptopstore.config.CacheConfig;
+import com.wiley.laptopstore.entity.Laptop;
+import com.wiley.laptopstore.service.LaptopService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class LaptopGridCacheTests {
+
+	@Autowired
+	private LaptopGridCache laptopGridCache;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@MockitoSpyBean
+	private LaptopService laptopService;
+
+	@BeforeEach
+	void setUp() {
+		// The spy sees calls that reach the service, so start without cached pages
+		cacheManager.getCache(CacheConfig.LAPTOP_GRID).clear();
+		cacheManager.getCache(CacheConfig.LAPTOP_PAGES).clear();
+		clearInvocations(laptopService);
+	}
+
+	@Test
+	void cachedGridCarriesEachCallersCsrfToken() {
+		String first = laptopGridCache.render(0, 12, null, null, null, false, csrfToken("token-one"));
+		String second = laptopGridCache.render(0, 12, null, null, null, false, csrfToken("token-two"));
+
+		assertThat(first).contains("value=\"token-one\"").doesNotContain(LaptopGridCache.CSRF_TOKEN_PLACEHOLDER);
+		assertThat(second).contains("value=\"token-two\"").doesNotContain("token-one");
+		verify(laptopService, times(1)).getLaptopPage(anyInt(), anyInt(), any(), any(), any());
+	}
+
+	@Test
+	void csrfTokenIsHtmlEscaped() {
+		String html = laptopGridCache.render(0, 12, null, null, null, false, csrfToken("a\"b<c"));
+
+		assertThat(html).contains("value=\"a&quot;b&lt;c\"");
+	}
+
+	@Test
+	void savedLaptopShowsUpInTheNextRender() {
+		laptopGridCache.render(0, 100, null, null, null, false, csrfToken("token"));
+
+		laptopService.saveLaptop(new Laptop("Aardvark Grid Test", "Acme", "Budget", new BigDecimal("199.00"),
+				"11 inch", "Intel Celeron", "/images/aardvark.jpg"));
+		String html = laptopGridCache.render(0, 100, null, null, null, false, csrfToken("token"));
+
+		assertThat(html).contains("Aardvark Grid Test");
+		verify(laptopService, times(2)).getLaptopPage(anyInt(), anyInt(), any(), any(), any());
+	}
+
+	private static CsrfToken csrfToken(String token) {
+		return new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", token);
+	}
+}
@@ -0,0 +1,93 @@
+package com.wiley.laptopstore.repository;
+
+import com.wiley.laptopstore.entity.Cart;
+import com.wiley.laptopstore.entity.Laptop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(CartItemWriter.class)
+class CartItemRepositoryTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private CartItemRepository cartItemRepository;
+
+	@Autowired
+	private CartItemWriter cartItemWriter;
+
+	private Laptop dell;
+	private Laptop apple;
+
+	@BeforeEach
+	void setUp() {
+		dell = entityManager.persist(new Laptop("Dell XPS 13", "Dell", "Ultrabook",
+				new BigDecimal("1299.00"), "13 inch", "Intel Core i7", "/images/dell.jpg"));
+		apple = entityManager.persist(new Laptop("MacBook Pro 14", "Apple", "Professional",
+				new BigDecimal("1999.50"), "14 inch", "Apple M2 Pro", "/images/mac.jpg"));
+	}
+
+	@Test
+	void upsertInsertsThenAddsToTheLine() {
+		Cart cart = entityManager.persist(new Cart("session-1"));
+
+		cartItemWriter.upsertQuantity(cart.getId(), dell.getId(), 2);
+		cartItemWriter.upsertQuantity(cart.getId(), dell.getId(), 3);
+		cartItemWriter.upsertQuantity(cart.getId(), apple.getId(), 1);
+
+		assertThat(quantities("session-1")).containsExactlyInAnyOrderEntriesOf(
+				Map.of(dell.getId(), 5, apple.getId(), 1));
+	}
+
+	@Test
+	void mergeCartLinesSumsSharedLaptops() {
+		Cart source = entityManager.persist(new Cart("session-source"));
+		Cart target = entityManager.persist(new Cart("session-target"));
+		cartItemWriter.upsertQuantity(source.getId(), dell.getId(), 3);
+		cartItemWriter.upsertQuantity(source.getId(), apple.getId(), 1);
+		cartItemWriter.upsertQuantity(target.getId(), dell.getId(), 4);
+
+		cartItemWriter.mergeCartLines(source.getId(), target.getId());
+
+		assertThat(quantities("session-target")).containsExactlyInAnyOrderEntriesOf(
+				Map.of(dell.getId(), 7, apple.getId(), 1));
+		assertThat(quantities("session-source")).containsExactlyInAnyOrderEntriesOf(
+				Map.of(dell.getId(), 3, apple.getId(), 1));
+	}
+
+	@Test
+	void bulkUpdateAndDeleteOnlyTouchTheSessionsCart() {
+		Cart mine = entityManager.persist(new Cart("session-mine"));
+		Cart other = entityManager.persist(new Cart("session-other"));
+		cartItemWriter.upsertQuantity(mine.getId(), dell.getId(), 1);
+		cartItemWriter.upsertQuantity(mine.getId(), apple.getId(), 1);
+		cartItemWriter.upsertQuantity(other.getId(), dell.getId(), 1);
+
+		assertThat(cartItemRepository.updateQuantity("session-mine", dell.getId(), 6)).isEqualTo(1);
+		assertThat(cartItemRepository.deleteBySessionIdAndLaptopId("session-mine", apple.getId())).isEqualTo(1);
+
+		assertThat(quantities("session-mine")).containsExactlyEntriesOf(Map.of(dell.getId(), 6));
+		assertThat(quantities("session-other")).containsExactlyEntriesOf(Map.of(dell.getId(), 1));
+	}
+
+	private Map<Long, Integer> quantities(String sessionId) {
+		List<Object[]> rows = entityManager.getEntityManager()
+				.createQuery("SELECT i.laptop.id, i.quantity FROM CartItem i WHERE i.cart.sessionId = :sessionId", Object[].class)
+				.setParameter("sessionId", sessionId)
+				.getResultList();
+		return rows.stream().collect(Collectors.toMap(row -> (Long) row[0], row -> (Integer) row[1]));
+	}
+}
@@ -0,0 +1,120 @@
+package com.wiley.laptopstore.repository;
+
+import com.wiley.laptopstore.entity.Cart;
+import com.wiley.laptopstore.entity.Laptop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the MySQL upserts against H2 in MySQL compatibility mode, which
+ * understands INSERT ... ON DUPLICATE KEY UPDATE.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:cart-mysql;MODE=MySQL")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CartItemWriter.class)
+class CartItemWriterMySqlTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private CartItemRepository cartItemRepository;
+
+	@Autowired
+	private CartItemWriter cartItemWriter;
+
+	private Laptop dell;
+	private Laptop apple;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(cartItemWriter, "dialect", CartItemWriter.Dialect.MYSQL);
+		dell = entityManager.persist(new Laptop("Dell XPS 13", "Dell", "Ultrabook",
+				new BigDecimal("1299.00"), "13 inch", "Intel Core i7", "/images/dell.jpg"));
+		apple = entityManager.persist(new Laptop("MacBook Pro 14", "Apple", "Professional",
+				new BigDecimal("1999.50"), "14 inch", "Apple M2 Pro", "/images/mac.jpg"));
+	}
+
+	@Test
+	void upsertInsertsThenAddsToTheLine() {
+		Cart cart = entityManager.persist(new Cart("mysql-1"));
+
+		cartItemWriter.upsertQuantity(cart.getId(), dell.getId(), 2);
+		cartItemWriter.upsertQuantity(cart.getId(), dell.getId(), 3);
+		cartItemWriter.upsertQuantity(cart.getId(), apple.getId(), 1);
+
+		assertThat(quantities("mysql-1")).containsExactlyInAnyOrderEntriesOf(
+				Map.of(dell.getId(), 5, apple.getId(), 1));
+	}
+
+	@Test
+	void batchedUpsertAddsToExistingLines() {
+		Cart cart = entityManager.persist(new Cart("mysql-batch"));
+		cartItemWriter.upsertQuantity(cart.getId(), dell.getId(), 1);
+		Map<Long, Integer> lines = new LinkedHashMap<>();
+		lines.put(dell.getId(), 2);
+		lines.put(apple.getId(), 4);
+
+		cartItemWriter.upsertQuantities(cart.getId(), lines);
+
+		assertThat(quantities("mysql-batch")).containsExactlyInAnyOrderEntriesOf(
+				Map.of(dell.getId(), 3, apple.getId(), 4));
+	}
+
+	@Test
+	void mergeCartLinesSumsSharedLaptops() {
+		Cart source = entityManager.persist(new Cart("mysql-source"));
+		Cart target = entityManager.persist(new Cart("mysql-target"));
+		cartItemWriter.upsertQuantity(source.getId(), dell.getId(), 3);
+		cartItemWriter.upsertQuantity(source.getId(), apple.getId(), 1);
+		cartItemWriter.upsertQuantity(target.getId(), dell.getId(), 4);
+
+		cartItemWriter.mergeCartLines(source.getId(), target.getId());
+
+		assertThat(quantities("mysql-target")).containsExactlyInAnyOrderEntriesOf(
+				Map.of(dell.getId(), 7, apple.getId(), 1));
+		assertThat(quantities("mysql-source")).containsExactlyInAnyOrderEntriesOf(
+				Map.of(dell.getId(), 3, apple.getId(), 1));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void unsupportedDatabaseFailsOnStartup() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+		CartItemWriter writer = new CartItemWriter();
+		ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+
+		assertThatThrownBy(writer::detectDialect)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("PostgreSQL");
+	}
+
+	private Map<Long, Integer> quantities(String sessionId) {
+		List<Object[]> rows = entityManager.getEntityManager()
+				.createQuery("SELECT i.laptop.id, i.quantity FROM CartItem i WHERE i.cart.sessionId = :sessionId", Object[].class)
+				.setParameter("sessionId", sessionId)
+				.getResultList();
+		return rows.stream().collect(Collectors.toMap(row -> (Long) row[0], row -> (Integer) row[1]));
+	}
+}
@@ -0,0 +1,85 @@
+package com.wiley.laptopstore.repository;
+
+import com.wiley.laptopstore.entity.Cart;
+import com.wiley.laptopstore.entity.Laptop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(CartItemWriter.class)
+class CartRepositoryTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private CartItemWriter cartItemWriter;
+
+	private Laptop dell;
+	private Laptop apple;
+
+	@BeforeEach
+	void setUp() {
+		dell = entityManager.persist(new Laptop("Dell XPS 13", "Dell", "Ultrabook",
+				new BigDecimal("1299.00"), "13 inch", "Intel Core i7", "/images/dell.jpg"));
+		apple = entityManager.persist(new Laptop("MacBook Pro 14", "Apple", "Professional",
+				new BigDecimal("1999.50"), "14 inch", "Apple M2 Pro", "/images/mac.jpg"));
+	}
+
+	@Test
+	void refreshTotalsSumsTheCartLines() {
+		Cart cart = entityManager.persist(new Cart("session-1"));
+		cartItemWriter.upsertQuantity(cart.getId(), dell.getId(), 2);
+		cartItemWriter.upsertQuantity(cart.getId(), apple.getId(), 1);
+
+		assertThat(cartRepository.refreshTotals("session-1")).isEqualTo(1);
+
+		assertSummary("session-1", 3, 2 * 129900L + 199950L);
+	}
+
+	@Test
+	void refreshTotalsOfAnEmptyCartIsZero() {
+		entityManager.persist(new Cart("session-empty"));
+
+		cartRepository.refreshTotals("session-empty");
+
+		assertSummary("session-empty", 0, 0);
+	}
+
+	@Test
+	void refreshTotalsForLaptopOnlyTouchesCartsHoldingIt() {
+		Cart withDell = entityManager.persist(new Cart("session-dell"));
+		Cart withApple = entityManager.persist(new Cart("session-apple"));
+		cartItemWriter.upsertQuantity(withDell.getId(), dell.getId(), 2);
+		cartItemWriter.upsertQuantity(withApple.getId(), apple.getId(), 1);
+		cartRepository.refreshTotals("session-dell");
+		cartRepository.refreshTotals("session-apple");
+
+		dell.setPrice(new BigDecimal("999.99"));
+		apple.setPrice(new BigDecimal("1.00"));
+		entityManager.flush();
+		// Only the Dell repricing is refreshed, so the Apple cart keeps its stored total
+		assertThat(cartRepository.refreshTotalsForLaptop(dell.getId())).isEqualTo(1);
+
+		assertSummary("session-dell", 2, 2 * 99999L);
+		assertSummary("session-apple", 1, 199950L);
+	}
+
+	private void assertSummary(String sessionId, int totalItems, long totalPriceCents) {
+		entityManager.clear();
+		CartSummary summary = cartRepository.findSummaryBySessionId(sessionId).orElseThrow();
+		assertThat(summary.getTotalItems()).isEqualTo(totalItems);
+		assertThat(summary.getTotalPriceCents()).isEqualTo(totalPriceCents);
+	}
+}
@@ -0,0 +1,95 @@
+package com.wiley.laptopstore.repository;
+
+import com.wiley.laptopstore.entity.Laptop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class LaptopRepositoryTests {
+
+	private static final BigDecimal SHARED_PRICE = new BigDecimal("1299.00");
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private LaptopRepository laptopRepository;
+
+	private Laptop cheap;
+	private Laptop firstShared;
+	private Laptop secondShared;
+	private Laptop thirdShared;
+	private Laptop expensive;
+
+	@BeforeEach
+	void setUp() {
+		// Persisted out of price order so the ordering comes from the query, not the IDs
+		firstShared = persist("Dell XPS 13", SHARED_PRICE);
+		expensive = persist("MacBook Pro 14", new BigDecimal("1999.50"));
+		secondShared = persist("Lenovo ThinkPad X1", SHARED_PRICE);
+		cheap = persist("Dell Inspiron 15", new BigDecimal("649.00"));
+		thirdShared = persist("HP Spectre x360", SHARED_PRICE);
+		entityManager.flush();
+	}
+
+	@Test
+	void pageAfterPriceContinuesWithinEqualPricesByIdThenMovesUp() {
+		List<Laptop> page = laptopRepository.findPageAfterPrice(SHARED_PRICE, firstShared.getId(), PageRequest.of(0, 10));
+
+		assertThat(page).containsExactly(secondShared, thirdShared, expensive);
+	}
+
+	@Test
+	void pageAfterPriceSkipsLowerPricesEvenWithHigherIds() {
+		List<Laptop> page = laptopRepository.findPageAfterPrice(cheap.getPrice(), cheap.getId(), PageRequest.of(0, 10));
+
+		// firstShared and secondShared have lower IDs than cheap but higher prices
+		assertThat(page).containsExactly(firstShared, secondShared, thirdShared, expensive);
+	}
+
+	@Test
+	void pageBeforePriceContinuesWithinEqualPricesByIdThenMovesDown() {
+		List<Laptop> page = laptopRepository.findPageBeforePrice(SHARED_PRICE, thirdShared.getId(), PageRequest.of(0, 10));
+
+		assertThat(page).containsExactly(secondShared, firstShared, cheap);
+	}
+
+	@Test
+	void pageBeforePriceSkipsHigherPricesEvenWithLowerIds() {
+		List<Laptop> page = laptopRepository.findPageBeforePrice(expensive.getPrice(), expensive.getId(), PageRequest.of(0, 10));
+
+		assertThat(page).containsExactly(thirdShared, secondShared, firstShared, cheap);
+	}
+
+	@Test
+	void keysetPagesAreLimitedByThePageable() {
+		assertThat(laptopRepository.findPageAfterPrice(cheap.getPrice(), cheap.getId(), PageRequest.of(0, 2)))
+				.containsExactly(firstShared, secondShared);
+		assertThat(laptopRepository.findPageBeforePrice(expensive.getPrice(), expensive.getId(), PageRequest.of(0, 2)))
+				.containsExactly(thirdShared, secondShared);
+		assertThat(laptopRepository.findPageAfterId(firstShared.getId(), PageRequest.of(0, 2)))
+				.containsExactly(expensive, secondShared);
+	}
+
+	@Test
+	void keysetPagesAfterTheLastRowAreEmpty() {
+		assertThat(laptopRepository.findPageAfterPrice(expensive.getPrice(), expensive.getId(), PageRequest.of(0, 10)))
+				.isEmpty();
+		assertThat(laptopRepository.findPageBeforePrice(cheap.getPrice(), cheap.getId(), PageRequest.of(0, 10)))
+				.isEmpty();
+	}
+
+	private Laptop persist(String name, BigDecimal price) {
+		return entityManager.persist(new Laptop(name, name.split(" ")[0], "Laptop",
+				price, null, "Intel Core i7", "/images/laptop.jpg"));
+	}
+}
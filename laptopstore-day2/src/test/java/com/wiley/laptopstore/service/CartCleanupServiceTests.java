@@ -0,0 +1,164 @@
+package com.wiley.laptopstore.service;
+
+import com.wiley.laptopstore.entity.Cart;
+import com.wiley.laptopstore.entity.Laptop;
+import com.wiley.laptopstore.repository.CartItemRepository;
+import com.wiley.laptopstore.repository.CartRepository;
+import com.wiley.laptopstore.repository.LaptopRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "laptopstore.cart.purge.batch-size=2")
+class CartCleanupServiceTests {
+
+	@Autowired
+	private CartCleanupService cartCleanupService;
+
+	@Autowired
+	private LaptopRepository laptopRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@MockitoSpyBean
+	private CartRepository cartRepository;
+
+	@MockitoSpyBean
+	private CartItemRepository cartItemRepository;
+
+	private Laptop laptop;
+	private Laptop otherLaptop;
+
+	@BeforeEach
+	void setUp() {
+		// Leave nothing stale behind from a previous test
+		cartCleanupService.purgeAbandonedCarts();
+		laptop = laptopRepository.save(new Laptop("Swift 3", "Acer", "Ultrabook",
+				new BigDecimal("799.00"), "14 inch", "Intel Core i5", "/images/swift.jpg"));
+		otherLaptop = laptopRepository.save(new Laptop("Zenbook 14", "Asus", "Ultrabook",
+				new BigDecimal("999.00"), "14 inch", "Intel Core i7", "/images/zenbook.jpg"));
+		clearInvocations(cartRepository, cartItemRepository);
+	}
+
+	@Test
+	void purgeDeletesOnlyCartsOlderThanTheMaxAge() {
+		Long stale = cart("purge-stale", 31, 2);
+		Long recent = cart("purge-recent", 29, 1);
+		Long fresh = cart("purge-fresh", 0, 2);
+
+		cartCleanupService.purgeAbandonedCarts();
+
+		assertThat(cartRepository.findById(stale)).isEmpty();
+		assertThat(itemCount(stale)).isZero();
+		assertThat(cartRepository.findById(recent)).isPresent();
+		assertThat(itemCount(recent)).isEqualTo(1);
+		assertThat(cartRepository.findById(fresh)).isPresent();
+		assertThat(itemCount(fresh)).isEqualTo(2);
+	}
+
+	@Test
+	void purgeLoopsInBatchesUntilAShortBatch() {
+		List<Long> stale = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			stale.add(cart("purge-batch-" + i, 40, 1));
+		}
+
+		cartCleanupService.purgeAbandonedCarts();
+
+		// 2 + 2 + 1: the short third batch ends the run without another query
+		verify(cartRepository, times(3)).findIdsUpdatedBefore(any(), any());
+		verify(cartRepository, times(3)).deleteStale(anyList(), any());
+		assertThat(cartRepository.findAllById(stale)).isEmpty();
+	}
+
+	@Test
+	void purgeStopsOnAnEmptyBatchWhenTheLastOneWasFull() {
+		for (int i = 0; i < 4; i++) {
+			cart("purge-even-" + i, 40, 1);
+		}
+
+		cartCleanupService.purgeAbandonedCarts();
+
+		verify(cartRepository, times(3)).findIdsUpdatedBefore(any(), any());
+		verify(cartRepository, times(2)).deleteStale(anyList(), any());
+	}
+
+	@Test
+	void purgeDeletesTheItemsOfEachBatchBeforeItsCarts() {
+		for (int i = 0; i < 3; i++) {
+			cart("purge-order-" + i, 40, 1);
+		}
+
+		cartCleanupService.purgeAbandonedCarts();
+
+		InOrder order = inOrder(cartRepository, cartItemRepository);
+		for (int batch = 0; batch < 2; batch++) {
+			order.verify(cartRepository).findIdsUpdatedBefore(any(), any());
+			order.verify(cartItemRepository).deleteByStaleCartIds(anyList(), any());
+			order.verify(cartRepository).deleteStale(anyList(), any());
+		}
+	}
+
+	@Test
+	void purgeCountsTheDeletedCartsAndItems() {
+		double cartsBefore = deletedCounter("carts");
+		double itemsBefore = deletedCounter("cart_items");
+		long runsBefore = meterRegistry.timer("laptopstore.cart.purge").count();
+		cart("purge-count-a", 40, 2);
+		cart("purge-count-b", 40, 1);
+		cart("purge-count-c", 40, 0);
+		cart("purge-count-fresh", 0, 2);
+
+		cartCleanupService.purgeAbandonedCarts();
+
+		assertThat(deletedCounter("carts") - cartsBefore).isEqualTo(3);
+		assertThat(deletedCounter("cart_items") - itemsBefore).isEqualTo(3);
+		assertThat(meterRegistry.timer("laptopstore.cart.purge").count()).isEqualTo(runsBefore + 1);
+	}
+
+	/**
+	 * A committed cart last updated daysOld days ago, holding up to two lines
+	 */
+	private Long cart(String sessionId, int daysOld, int lines) {
+		Long cartId = cartRepository.save(new Cart(sessionId)).getId();
+		List<Laptop> laptops = List.of(laptop, otherLaptop);
+		for (int i = 0; i < lines; i++) {
+			jdbcTemplate.update("INSERT INTO cart_items (cart_id, laptop_id, quantity, created_at) " +
+					"VALUES (?, ?, 1, CURRENT_TIMESTAMP)", cartId, laptops.get(i).getId());
+		}
+		jdbcTemplate.update("UPDATE carts SET updated_at = ? WHERE id = ?",
+				LocalDateTime.now().minusDays(daysOld), cartId);
+		clearInvocations(cartRepository, cartItemRepository);
+		return cartId;
+	}
+
+	private int itemCount(Long cartId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items WHERE cart_id = ?", Integer.class, cartId);
+	}
+
+	private double deletedCounter(String table) {
+		return meterRegistry.counter("laptopstore.cart.purge.deleted", "table", table).count();
+	}
+}
@@ -0,0 +1,75 @@
+package com.wiley.laptopstore.service;
+
+import com.wiley.laptopstore.cart.SessionLocks;
+import com.wiley.laptopstore.entity.Laptop;
+import com.wiley.laptopstore.entity.User;
+import com.wiley.laptopstore.repository.LaptopRepository;
+import com.wiley.laptopstore.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.inOrder;
+
+@SpringBootTest(properties = "laptopstore.cart.store=memory")
+class CartServiceMergeTests {
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private LaptopRepository laptopRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@MockitoSpyBean
+	private SessionLocks sessionLocks;
+
+	private Laptop laptop;
+
+	@BeforeEach
+	void setUp() {
+		laptop = laptopRepository.save(new Laptop("ThinkPad X1", "Lenovo", "Business",
+				new BigDecimal("1500.00"), "14 inch", "Intel Core i7", "/images/x1.jpg"));
+	}
+
+	@Test
+	void mergeLocksBothSessionsInOrderAndKeepsTheMemoryCart() {
+		userRepository.save(new User("merge-user", "merge-user@example.com", "{noop}secret"));
+		cartService.addToCart("merge-b-old", laptop, 2);
+		clearInvocations(sessionLocks);
+
+		cartService.mergeCartOnLogin("merge-b-old", "merge-a-new", "merge-user");
+
+		InOrder locks = inOrder(sessionLocks);
+		locks.verify(sessionLocks).lockForTransaction("merge-a-new");
+		// The flush of the old session takes its lock again, reentrantly
+		locks.verify(sessionLocks, atLeastOnce()).lockForTransaction("merge-b-old");
+		assertThat(cartService.getCartItemCount("merge-a-new")).isEqualTo(2);
+		assertThat(cartService.getCartItemCount("merge-b-old")).isZero();
+	}
+
+	@Test
+	void mergeWithoutUserRowStillLocksAndFlushes() {
+		cartService.addToCart("orphan-a-old", laptop, 3);
+		clearInvocations(sessionLocks);
+
+		cartService.mergeCartOnLogin("orphan-a-old", "orphan-b-new", "no-such-user");
+
+		InOrder locks = inOrder(sessionLocks);
+		locks.verify(sessionLocks).lockForTransaction("orphan-a-old");
+		locks.verify(sessionLocks).lockForTransaction("orphan-b-new");
+		locks.verify(sessionLocks).lockForTransaction("orphan-a-old");
+		assertThat(cartService.getCartItemCount("orphan-b-new")).isEqualTo(3);
+		assertThat(cartService.getCartItemCount("orphan-a-old")).isZero();
+	}
+}
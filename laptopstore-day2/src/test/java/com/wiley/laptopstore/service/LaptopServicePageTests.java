@@ -0,0 +1,130 @@
+package com.wiley.laptopstore.service;
+
+import com.wiley.laptopstore.entity.Laptop;
+import com.wiley.laptopstore.repository.LaptopRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * getLaptopPage against the database. The service is built by hand around
+ * the repository: paging needs nothing else, and no caching proxy gets in
+ * the way of repeated reads.
+ */
+@DataJpaTest
+class LaptopServicePageTests {
+
+	private static final BigDecimal SHARED_PRICE = new BigDecimal("1299.00");
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private LaptopRepository laptopRepository;
+
+	private final LaptopService laptopService = new LaptopService();
+
+	private Laptop cheap;
+	private Laptop firstShared;
+	private Laptop secondShared;
+	private Laptop thirdShared;
+	private Laptop expensive;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(laptopService, "laptopRepository", laptopRepository);
+		firstShared = persist("Dell XPS 13", SHARED_PRICE);
+		expensive = persist("MacBook Pro 14", new BigDecimal("1999.50"));
+		secondShared = persist("Lenovo ThinkPad X1", SHARED_PRICE);
+		cheap = persist("Dell Inspiron 15", new BigDecimal("649.00"));
+		thirdShared = persist("HP Spectre x360", SHARED_PRICE);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void priceAscendingPagesSplitEqualPricesWithoutGapsOrRepeats() {
+		List<LaptopPage> pages = walk("price", 2);
+
+		assertThat(ids(pages)).containsExactly(
+				List.of(cheap.getId(), firstShared.getId()),
+				List.of(secondShared.getId(), thirdShared.getId()),
+				List.of(expensive.getId()));
+		assertThat(pages).extracting(LaptopPage::hasNext).containsExactly(true, true, false);
+	}
+
+	@Test
+	void priceDescendingPagesSplitEqualPricesWithoutGapsOrRepeats() {
+		List<LaptopPage> pages = walk("price-desc", 2);
+
+		assertThat(ids(pages)).containsExactly(
+				List.of(expensive.getId(), thirdShared.getId()),
+				List.of(secondShared.getId(), firstShared.getId()),
+				List.of(cheap.getId()));
+		assertThat(pages).extracting(LaptopPage::hasNext).containsExactly(true, true, false);
+	}
+
+	@Test
+	void idPagesFollowTheIdOrder() {
+		List<LaptopPage> pages = walk("id", 3);
+
+		assertThat(ids(pages)).containsExactly(
+				List.of(firstShared.getId(), expensive.getId(), secondShared.getId()),
+				List.of(cheap.getId(), thirdShared.getId()));
+	}
+
+	@Test
+	void hasNextIsFalseWhenTheRemainingRowsExactlyFillThePage() {
+		LaptopPage exact = laptopService.getLaptopPage(1, 4, "price", cheap.getId(), cheap.getPrice());
+		LaptopPage partial = laptopService.getLaptopPage(1, 3, "price", cheap.getId(), cheap.getPrice());
+
+		assertThat(exact.getLaptops()).hasSize(4);
+		assertThat(exact.hasNext()).isFalse();
+		assertThat(partial.getLaptops()).hasSize(3);
+		assertThat(partial.hasNext()).isTrue();
+	}
+
+	@Test
+	void priceSortWithoutAnAfterPriceFallsBackToOffsetPaging() {
+		LaptopPage page = laptopService.getLaptopPage(1, 2, "price", expensive.getId(), null);
+
+		assertThat(page.getLaptops()).extracting(Laptop::getId)
+				.containsExactly(secondShared.getId(), thirdShared.getId());
+		assertThat(page.hasNext()).isTrue();
+	}
+
+	/**
+	 * Follow the next-page keys from the first (offset) page to the last
+	 */
+	private List<LaptopPage> walk(String sort, int size) {
+		List<LaptopPage> pages = new ArrayList<>();
+		LaptopPage page = laptopService.getLaptopPage(0, size, sort, null, null);
+		pages.add(page);
+		while (page.hasNext()) {
+			page = laptopService.getLaptopPage(page.getPage() + 1, size, sort,
+					page.getNextAfterId(), page.getNextAfterPrice());
+			pages.add(page);
+		}
+		return pages;
+	}
+
+	private static List<List<Long>> ids(List<LaptopPage> pages) {
+		return pages.stream()
+				.map(page -> page.getLaptops().stream().map(Laptop::getId).toList())
+				.toList();
+	}
+
+	private Laptop persist(String name, BigDecimal price) {
+		return entityManager.persist(new Laptop(name, name.split(" ")[0], "Laptop",
+				price, null, "Intel Core i7", "/images/laptop.jpg"));
+	}
+}
@@ -0,0 +1,70 @@
+package com.wiley.laptopstore.service;
+
+import com.wiley.laptopstore.catalog.CatalogVersion;
+import com.wiley.laptopstore.catalog.LaptopSearchIndex;
+import com.wiley.laptopstore.config.CacheConfig;
+import com.wiley.laptopstore.entity.Laptop;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LaptopServiceSaveTests {
+
+	@Autowired
+	private LaptopService laptopService;
+
+	@Autowired
+	private CatalogVersion catalogVersion;
+
+	@Autowired
+	private LaptopSearchIndex searchIndex;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void committedSaveUpdatesIndexesCachesAndVersion() {
+		Cache pages = cacheManager.getCache(CacheConfig.LAPTOP_PAGES);
+		pages.put("stale", "old page");
+		long version = catalogVersion.get();
+
+		Laptop saved = laptopService.saveLaptop(laptop("Zephyrus Committed"));
+
+		assertThat(catalogVersion.get()).isEqualTo(version + 1);
+		assertThat(searchIndex.search("zephyrus committed")).extracting(Laptop::getId).containsExactly(saved.getId());
+		assertThat(cacheManager.getCache(CacheConfig.LAPTOPS).get(saved.getId())).isNotNull();
+		assertThat(pages.get("stale")).isNull();
+	}
+
+	@Test
+	void rolledBackSaveLeavesIndexesAndVersionAlone() {
+		long version = catalogVersion.get();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			laptopService.saveLaptop(laptop("Zephyrus Rolledback"));
+			// Not visible to readers before the commit either
+			assertThat(catalogVersion.get()).isEqualTo(version);
+			status.setRollbackOnly();
+		});
+
+		assertThat(catalogVersion.get()).isEqualTo(version);
+		assertThat(searchIndex.search("zephyrus rolledback")).isEmpty();
+	}
+
+	private static Laptop laptop(String name) {
+		return new Laptop(name, "Asus", "Gaming", new BigDecimal("1799.00"),
+				"16 inch", "AMD Ryzen 9", "/images/zephyrus.jpg");
+	}
+}